@@ -0,0 +1,104 @@
+package com.example.jwtapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la emisión y verificación de tokens en JwtService.
+ * Se ejecuta con el perfil jmh:
+ * mvn -Pjmh test-compile exec:exec
+ * Por defecto reporta ops/s y la tasa de asignación de memoria (-prof gc); ver jmh.args en pom.xml.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    /**
+     * Número de claims adicionales del token
+     */
+    @Param({"0", "5", "20"})
+    public int claimCount;
+
+    /**
+     * Caché de tokens verificados (jwt.cache.enabled)
+     */
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtService jwtService;
+
+    private UserDetails userDetails;
+
+    private Map<String, Object> extraClaims;
+
+    private String token;
+
+    /**
+     * Configura el servicio igual que Spring y genera el token usado en las verificaciones
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(24));
+        ReflectionTestUtils.setField(jwtService, "tokenCacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+        jwtService.init();
+
+        userDetails = User.withUsername("admin")
+                .password("unused")
+                .roles("USER")
+                .build();
+
+        extraClaims = new HashMap<>();
+        for (int i = 0; i < claimCount; i++) {
+            extraClaims.put("claim" + i, "valor-" + i);
+        }
+        token = jwtService.generateToken(extraClaims, userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(extraClaims, userDetails);
+    }
+
+    @Benchmark
+    public VerifiedClaims validateAndParse() {
+        return jwtService.validateAndParse(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.jwtapi.loadtest;
+
+import com.example.jwtapi.loadtest.LoadDriver.OperationResult;
+import com.example.jwtapi.loadtest.LoadDriver.ScenarioResult;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Informe de latencias de un escenario: tabla de percentiles por consola y
+ * distribuciones completas en formato .hgrm (HdrHistogram) por operación
+ */
+public class LatencyReport {
+
+    /**
+     * Los histogramas están en microsegundos; los informes se expresan en milisegundos
+     */
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private static final String ROW_FORMAT = "%-42s %9s %9s %7s %9s %9s %9s %9s %9s%n";
+
+    private final Path outputDirectory;
+
+    public LatencyReport(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Imprime la tabla de percentiles y escribe los ficheros .hgrm del escenario
+     */
+    public void write(ScenarioResult result, PrintStream out) throws IOException {
+        double seconds = result.elapsed().toNanos() / 1e9;
+        out.printf(Locale.ROOT, "%n== %s: %d usuarios concurrentes, %.1f s medidos ==%n",
+                result.scenario().getId(), result.concurrency(), seconds);
+        out.printf(Locale.ROOT, ROW_FORMAT, "operación", "peticiones", "req/s", "errores",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Path directory = outputDirectory.resolve(result.scenario().getId());
+        Files.createDirectories(directory);
+        for (var entry : result.operations().entrySet()) {
+            OperationResult operation = entry.getValue();
+            printRow(out, entry.getKey(), operation.latencies(), operation.errors(), seconds);
+            writeDistribution(directory.resolve(fileName(entry.getKey())), operation.latencies());
+        }
+        Histogram total = result.total();
+        printRow(out, "TOTAL", total, result.totalErrors(), seconds);
+        writeDistribution(directory.resolve("total.hgrm"), total);
+        out.println("Distribuciones completas en " + directory.toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        long count = histogram.getTotalCount();
+        out.printf(Locale.ROOT, ROW_FORMAT, name, count,
+                String.format(Locale.ROOT, "%.1f", count / seconds), errors,
+                millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                String.format(Locale.ROOT, "%.2f", histogram.getMaxValue() / MICROS_PER_MILLI));
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return String.format(Locale.ROOT, "%.2f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    /**
+     * "GET /api/products/{id}" -> "get-api-products-id.hgrm"
+     */
+    static String fileName(String operation) {
+        String slug = operation.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("(^-|-$)", "");
+        return slug + ".hgrm";
+    }
+
+    /**
+     * Tabla comparativa de throughput y p99 total por escenario entre varias ejecuciones
+     */
+    public static void writeComparison(List<String> labels, List<ScenarioResult> results, PrintStream out) {
+        out.printf(Locale.ROOT, "%n== Comparación por modelo de hilos ==%n");
+        out.printf(Locale.ROOT, "%-14s %-10s %9s %9s %9s %7s%n", "escenario", "hilos", "req/s", "p50 ms", "p99 ms", "errores");
+        for (int i = 0; i < results.size(); i++) {
+            ScenarioResult result = results.get(i);
+            Histogram total = result.total();
+            double seconds = result.elapsed().toNanos() / 1e9;
+            out.printf(Locale.ROOT, "%-14s %-10s %9.1f %9s %9s %7d%n", result.scenario().getId(), labels.get(i),
+                    total.getTotalCount() / seconds, millis(total, 50.0), millis(total, 99.0), result.totalErrors());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.jwtapi.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga en lazo cerrado: cada usuario virtual envía una petición, espera la respuesta
+ * y envía la siguiente, eligiendo la operación según su peso.
+ * Las latencias se registran en microsegundos en un histograma HDR por operación.
+ * Al ser lazo cerrado, una parada del servidor reduce el número de peticiones enviadas
+ * (omisión coordinada); los percentiles altos deben leerse junto al throughput.
+ */
+public class LoadDriver {
+
+    /**
+     * Latencia máxima registrable: 60 s en microsegundos
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient httpClient;
+
+    private final int concurrency;
+
+    public LoadDriver(HttpClient httpClient, int concurrency) {
+        this.httpClient = httpClient;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Ejecuta el escenario: un calentamiento cuyos resultados se descartan y la fase medida
+     */
+    public ScenarioResult run(Scenario scenario, LoadTestContext context, Duration warmup, Duration duration)
+            throws InterruptedException {
+        List<Operation> operations = scenario.operations(context);
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            stats.put(operation.name(), new OperationStats());
+        }
+
+        drive(operations, stats, warmup);
+        stats.values().forEach(OperationStats::reset);
+
+        long start = System.nanoTime();
+        drive(operations, stats, duration);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<String, OperationResult> results = new LinkedHashMap<>();
+        stats.forEach((name, operationStats) -> results.put(name, operationStats.result()));
+        return new ScenarioResult(scenario, concurrency, elapsed, results);
+    }
+
+    private void drive(List<Operation> operations, Map<String, OperationStats> stats, Duration duration)
+            throws InterruptedException {
+        if (duration.isZero()) {
+            return;
+        }
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = pick(operations, totalWeight, random);
+                        execute(operation, stats.get(operation.name()), random);
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+        }
+        if (!workers.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void execute(Operation operation, OperationStats stats, ThreadLocalRandom random) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = httpClient.send(operation.request().apply(random),
+                    HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() < 400;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), ok);
+    }
+
+    private static Operation pick(List<Operation> operations, int totalWeight, ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * Latencias y errores acumulados de una operación; seguro para varios hilos
+     */
+    private static final class OperationStats {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+        private final LongAdder errors = new LongAdder();
+
+        void record(long micros, boolean ok) {
+            recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            recorder.reset();
+            errors.reset();
+        }
+
+        OperationResult result() {
+            return new OperationResult(recorder.getIntervalHistogram(), errors.sum());
+        }
+    }
+
+    /**
+     * Resultado de una operación: histograma de latencias (µs) y número de respuestas con error
+     */
+    public record OperationResult(Histogram latencies, long errors) {
+    }
+
+    /**
+     * Resultado de un escenario
+     */
+    public record ScenarioResult(Scenario scenario, int concurrency, Duration elapsed,
+                                 Map<String, OperationResult> operations) {
+
+        /**
+         * Histograma con todas las operaciones del escenario
+         */
+        public Histogram total() {
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            operations.values().forEach(result -> total.add(result.latencies()));
+            return total;
+        }
+
+        public long totalErrors() {
+            return operations.values().stream().mapToLong(OperationResult::errors).sum();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.jwtapi.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Datos compartidos por las operaciones: URL del servidor, token JWT y productos sembrados
+ */
+public record LoadTestContext(String baseUrl, String username, String password, String token, List<Long> productIds) {
+
+    public int productCount() {
+        return productIds.size();
+    }
+
+    public Long randomProductId(ThreadLocalRandom random) {
+        return productIds.get(random.nextInt(productIds.size()));
+    }
+
+    public String loginJson() {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.jwtapi.loadtest;
+
+import com.example.jwtapi.JwtApiApplication;
+import com.example.jwtapi.config.VirtualThreadsConfig;
+import com.example.jwtapi.loadtest.LoadDriver.ScenarioResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Harness de carga HTTP para los endpoints de autenticación y productos.
+ * Sin loadtest.base-url arranca la aplicación en este mismo proceso con H2 en memoria y un puerto libre;
+ * con loadtest.base-url mide una instancia ya arrancada (recomendado para no compartir CPU con el generador).
+ * Con loadtest.threading=both (JDK 21+) mide los mismos escenarios con el pool de hilos de Tomcat y con hilos
+ * virtuales, arrancando la aplicación una vez por modo, e imprime una comparación de throughput y p99.
+ * Se ejecuta con el perfil loadtest:
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.scenarios=read-heavy -Dloadtest.concurrency=64
+ */
+public class LoadTestRunner {
+
+    private static final String SEED_PATH = "/api/products/bulk";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url", "");
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String id : System.getProperty("loadtest.scenarios", "read-heavy,write-heavy,login-storm").split(",")) {
+            scenarios.add(Scenario.fromId(id.trim()));
+        }
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10L));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30L));
+        int productCount = Integer.getInteger("loadtest.products", 2000);
+        String username = System.getProperty("loadtest.username", "admin");
+        String password = System.getProperty("loadtest.password", "admin123");
+        Path outputDirectory = Path.of(System.getProperty("loadtest.output-dir", "target/loadtest"));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        LoadDriver driver = new LoadDriver(httpClient, concurrency);
+
+        List<ScenarioResult> results = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (Threading threading : threadingModes(baseUrl)) {
+            ConfigurableApplicationContext application = null;
+            String serverUrl = baseUrl;
+            if (threading != Threading.REMOTE) {
+                application = startApplication(threading);
+                serverUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            }
+            try {
+                List<Long> productIds = seedProducts(httpClient, objectMapper, serverUrl, productCount);
+                String token = login(httpClient, objectMapper, serverUrl, username, password);
+                LoadTestContext context = new LoadTestContext(serverUrl, username, password, token, productIds);
+                System.out.printf("%nServidor %s (%s), %d productos sembrados%n",
+                        serverUrl, threading.id, productIds.size());
+
+                LatencyReport report = new LatencyReport(outputDirectory.resolve(threading.id));
+                for (Scenario scenario : scenarios) {
+                    ScenarioResult result = driver.run(scenario, context, warmup, duration);
+                    report.write(result, System.out);
+                    results.add(result);
+                    labels.add(threading.id);
+                }
+            } finally {
+                if (application != null) {
+                    application.close();
+                }
+            }
+        }
+        if (labels.stream().distinct().count() > 1) {
+            LatencyReport.writeComparison(labels, results, System.out);
+        }
+        long errors = results.stream().mapToLong(ScenarioResult::totalErrors).sum();
+        System.exit(errors == 0 ? 0 : 1);
+    }
+
+    /**
+     * Modelo de hilos con el que se arranca la aplicación
+     */
+    enum Threading {
+        PLATFORM("platform"),
+        VIRTUAL("virtual"),
+        REMOTE("remote");
+
+        private final String id;
+
+        Threading(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Modos a medir según loadtest.threading (platform, virtual o both).
+     * Con loadtest.base-url solo se mide el servidor indicado; sin JDK 21 se omiten los hilos virtuales.
+     */
+    private static List<Threading> threadingModes(String baseUrl) {
+        if (!baseUrl.isBlank()) {
+            return List.of(Threading.REMOTE);
+        }
+        String mode = System.getProperty("loadtest.threading", "platform").trim().toLowerCase();
+        List<Threading> modes = switch (mode) {
+            case "platform" -> List.of(Threading.PLATFORM);
+            case "virtual" -> List.of(Threading.VIRTUAL);
+            case "both" -> List.of(Threading.PLATFORM, Threading.VIRTUAL);
+            default -> throw new IllegalArgumentException("loadtest.threading desconocido: " + mode);
+        };
+        if (modes.contains(Threading.VIRTUAL) && !VirtualThreadsConfig.isSupported()) {
+            System.out.println("AVISO: los hilos virtuales requieren JDK 21+; se mide solo el pool de Tomcat");
+            return List.of(Threading.PLATFORM);
+        }
+        return modes;
+    }
+
+    /**
+     * Arranca la aplicación con H2 en memoria, puerto aleatorio y logging reducido.
+     * Se pasan como argumentos de línea de comandos para que prevalezcan sobre application.properties.
+     */
+    private static ConfigurableApplicationContext startApplication(Threading threading) {
+        return new SpringApplicationBuilder(JwtApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + threading.id + ";DB_CLOSE_DELAY=-1",
+                "--spring.threads.virtual.enabled=" + (threading == Threading.VIRTUAL),
+                "--spring.h2.console.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--security.password.benchmark-on-startup=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.jwtapi=WARN",
+                "--logging.level.org.springframework.security=WARN");
+    }
+
+    /**
+     * Crea los productos del catálogo con el endpoint de alta masiva y devuelve sus IDs
+     */
+    private static List<Long> seedProducts(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl,
+                                           int count) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder("[");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(Scenario.productJson(random));
+        }
+        body.append(']');
+        JsonNode response = send(httpClient, objectMapper, HttpRequest.newBuilder(URI.create(baseUrl + SEED_PATH))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+        List<Long> ids = new ArrayList<>();
+        response.get("ids").forEach(id -> ids.add(id.asLong()));
+        return ids;
+    }
+
+    /**
+     * Obtiene el token usado por las peticiones autenticadas
+     */
+    private static String login(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl,
+                                String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        JsonNode response = send(httpClient, objectMapper, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        return response.get("token").asText();
+    }
+
+    private static JsonNode send(HttpClient httpClient, ObjectMapper objectMapper, HttpRequest request)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " respondió "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
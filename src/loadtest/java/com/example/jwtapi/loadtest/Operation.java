@@ -0,0 +1,12 @@
+package com.example.jwtapi.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Petición HTTP de un escenario con su peso relativo.
+ * La función recibe el generador aleatorio del hilo para elegir IDs, páginas o términos de búsqueda.
+ */
+public record Operation(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+}
@@ -0,0 +1,139 @@
+package com.example.jwtapi.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mezclas de peticiones medidas por el harness de carga
+ */
+public enum Scenario {
+
+    /**
+     * Consultas de catálogo: listados paginados, lectura por ID, búsquedas y perfil autenticado
+     */
+    READ_HEAVY("read-heavy"),
+
+    /**
+     * Las mismas lecturas de catálogo que read-heavy contra /api/products/async
+     */
+    READ_HEAVY_ASYNC("read-heavy-async"),
+
+    /**
+     * Altas, modificaciones y movimientos de stock con algunas lecturas por ID
+     */
+    WRITE_HEAVY("write-heavy"),
+
+    /**
+     * Ráfaga de logins (BCrypt) mezclada con accesos autenticados
+     */
+    LOGIN_STORM("login-storm");
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] SEARCH_TERMS = {"laptop", "mouse", "teclado", "monitor", "cable"};
+
+    private final String id;
+
+    Scenario(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Busca un escenario por su identificador (read-heavy, write-heavy, login-storm)
+     */
+    public static Scenario fromId(String id) {
+        for (Scenario scenario : values()) {
+            if (scenario.id.equalsIgnoreCase(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Escenario desconocido: " + id);
+    }
+
+    /**
+     * Operaciones del escenario contra el servidor indicado
+     */
+    public List<Operation> operations(LoadTestContext context) {
+        return switch (this) {
+            case READ_HEAVY -> List.of(
+                    new Operation("GET /api/products?page", 25, random -> get(context,
+                            "/api/products?page=" + random.nextInt(context.productCount() / 20) + "&size=20")),
+                    new Operation("GET /api/products/{id}", 40, random -> get(context,
+                            "/api/products/" + context.randomProductId(random))),
+                    new Operation("GET /api/products/search", 10, random -> get(context,
+                            "/api/products/search?name=" + randomTerm(random))),
+                    new Operation("GET /api/products/search/text", 15, random -> get(context,
+                            "/api/products/search/text?q=" + randomTerm(random))),
+                    new Operation("GET /api/protected/profile", 10, random -> authenticatedGet(context,
+                            "/api/protected/profile")));
+            case READ_HEAVY_ASYNC -> List.of(
+                    new Operation("GET /api/products/async?page", 25, random -> get(context,
+                            "/api/products/async?page=" + random.nextInt(context.productCount() / 20) + "&size=20")),
+                    new Operation("GET /api/products/async/{id}", 40, random -> get(context,
+                            "/api/products/async/" + context.randomProductId(random))),
+                    new Operation("GET /api/products/async/search", 10, random -> get(context,
+                            "/api/products/async/search?name=" + randomTerm(random))),
+                    new Operation("GET /api/products/async/search/text", 15, random -> get(context,
+                            "/api/products/async/search/text?q=" + randomTerm(random))),
+                    new Operation("GET /api/protected/profile", 10, random -> authenticatedGet(context,
+                            "/api/protected/profile")));
+            case WRITE_HEAVY -> List.of(
+                    new Operation("POST /api/products", 30, random -> json(context, "POST",
+                            "/api/products", productJson(random))),
+                    new Operation("PUT /api/products/{id}", 30, random -> json(context, "PUT",
+                            "/api/products/" + context.randomProductId(random), productJson(random))),
+                    new Operation("POST /api/products/{id}/stock/increment", 20, random -> json(context, "POST",
+                            "/api/products/" + context.randomProductId(random) + "/stock/increment?amount=1", "")),
+                    new Operation("GET /api/products/{id}", 20, random -> get(context,
+                            "/api/products/" + context.randomProductId(random))));
+            case LOGIN_STORM -> List.of(
+                    new Operation("POST /api/auth/login", 80, random -> json(context, "POST",
+                            "/api/auth/login", context.loginJson())),
+                    new Operation("GET /api/protected/profile", 20, random -> authenticatedGet(context,
+                            "/api/protected/profile")));
+        };
+    }
+
+    private static HttpRequest get(LoadTestContext context, String path) {
+        return HttpRequest.newBuilder(URI.create(context.baseUrl() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest authenticatedGet(LoadTestContext context, String path) {
+        return HttpRequest.newBuilder(URI.create(context.baseUrl() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + context.token())
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest json(LoadTestContext context, String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(context.baseUrl() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String randomTerm(ThreadLocalRandom random) {
+        return SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+    }
+
+    /**
+     * Cuerpo JSON de un producto con nombre, precio y stock aleatorios
+     */
+    static String productJson(ThreadLocalRandom random) {
+        return "{\"name\":\"" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)] + " " + random.nextInt(100_000)
+                + "\",\"description\":\"Producto de prueba de carga\",\"price\":"
+                + (1 + random.nextInt(5_000)) + ".99,\"stock\":" + random.nextInt(1_000) + "}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.jwtapi.config;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Configuración de los pools de conexiones y comprobación de su tamaño frente a los hilos de Tomcat.
+ * Las métricas del pool (hikaricp.connections.active/idle/pending y el histograma
+ * hikaricp.connections.acquire) las publica Spring Boot Actuator.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourcePoolProperties.class)
+public class DataSourcePoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+    @Autowired
+    private DataSourcePoolProperties poolProperties;
+
+    @Autowired
+    private VirtualThreadsConfig virtualThreadsConfig;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads;
+
+    @Bean
+    public static HikariPoolConfigurer hikariPoolConfigurer(ObjectProvider<DataSourcePoolProperties> properties) {
+        return new HikariPoolConfigurer(properties);
+    }
+
+    /**
+     * Avisa al arrancar si el pool no guarda proporción con los hilos de Tomcat
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        checkPoolSizing().ifPresent(log::warn);
+    }
+
+    /**
+     * Devuelve un aviso si el pool es mayor que el número de hilos (conexiones que nunca se usan)
+     * o si hay demasiados hilos por conexión (peticiones esperando conexión hasta el timeout).
+     * Con hilos virtuales Tomcat no tiene un número fijo de hilos y no hay nada que comparar.
+     */
+    public Optional<String> checkPoolSizing() {
+        if (virtualThreadsConfig.isActive()) {
+            return Optional.empty();
+        }
+        int poolSize = poolProperties.getMaximumPoolSize();
+        if (poolSize > tomcatMaxThreads) {
+            return Optional.of(String.format("Pool de conexiones (%d) mayor que server.tomcat.threads.max (%d): "
+                    + "sobran conexiones abiertas", poolSize, tomcatMaxThreads));
+        }
+        if (tomcatMaxThreads > poolSize * poolProperties.getMaxThreadsPerConnection()) {
+            return Optional.of(String.format("server.tomcat.threads.max (%d) supera %d hilos por conexión del pool (%d): "
+                    + "las peticiones esperarán conexión hasta %d ms", tomcatMaxThreads,
+                    poolProperties.getMaxThreadsPerConnection(), poolSize,
+                    poolProperties.getConnectionTimeout().toMillis()));
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.jwtapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración de los pools de conexiones (HikariCP), prefijo app.datasource.pool.
+ * Se aplica a todos los pools de la aplicación (el único de Spring Boot o los de escritura y lectura).
+ */
+@ConfigurationProperties(prefix = "app.datasource.pool")
+public class DataSourcePoolProperties {
+
+    /**
+     * Número máximo de conexiones del pool
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * Conexiones inactivas mínimas; sin valor, igual a maximumPoolSize (pool de tamaño fijo)
+     */
+    private Integer minimumIdle;
+
+    /**
+     * Tiempo máximo de espera para obtener una conexión antes de fallar
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Tiempo tras el cual una conexión no devuelta se registra como posible fuga (0 = desactivado)
+     */
+    private Duration leakDetectionThreshold = Duration.ZERO;
+
+    /**
+     * Sentencias preparadas cacheadas por conexión en el driver (H2: QUERY_CACHE_SIZE,
+     * PostgreSQL: preparedStatementCacheQueries)
+     */
+    private int preparedStatementCacheSize = 256;
+
+    /**
+     * Hilos de Tomcat por conexión a partir de los cuales se avisa al arrancar
+     */
+    private int maxThreadsPerConnection = 10;
+
+    // Getters y Setters
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Integer getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(Integer minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+
+    public int getMaxThreadsPerConnection() {
+        return maxThreadsPerConnection;
+    }
+
+    public void setMaxThreadsPerConnection(int maxThreadsPerConnection) {
+        this.maxThreadsPerConnection = maxThreadsPerConnection;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.jwtapi.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Aplica DataSourcePoolProperties a cada HikariDataSource antes de que arranque su pool.
+ * Se ejecuta antes del binding de @ConfigurationProperties (spring.datasource.hikari.* o
+ * app.datasource.read.hikari.*), así que un valor puesto explícitamente ahí prevalece.
+ */
+public class HikariPoolConfigurer implements BeanPostProcessor, PriorityOrdered {
+
+    private final ObjectProvider<DataSourcePoolProperties> properties;
+
+    public HikariPoolConfigurer(ObjectProvider<DataSourcePoolProperties> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Antes que ConfigurationPropertiesBindingPostProcessor (HIGHEST_PRECEDENCE + 1)
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            apply(properties.getObject(), dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * Configura tamaño, timeouts y caché de sentencias preparadas del pool
+     */
+    static void apply(DataSourcePoolProperties pool, HikariDataSource dataSource) {
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(pool.getMinimumIdle() != null ? pool.getMinimumIdle() : pool.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+        dataSource.setLeakDetectionThreshold(pool.getLeakDetectionThreshold().toMillis());
+
+        String url = dataSource.getJdbcUrl();
+        String cacheSize = String.valueOf(pool.getPreparedStatementCacheSize());
+        if (url != null && url.startsWith("jdbc:h2:")) {
+            dataSource.addDataSourceProperty("QUERY_CACHE_SIZE", cacheSize);
+        } else if (url != null && url.startsWith("jdbc:postgresql:")) {
+            dataSource.addDataSourceProperty("preparedStatementCacheQueries", cacheSize);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.jwtapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide al arrancar cuánto tarda un hash con la configuración elegida,
+ * para ajustar el coste según la latencia de login aceptable en cada entorno.
+ */
+@Component
+public class PasswordEncoderBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderBenchmark.class);
+
+    private static final String SAMPLE_PASSWORD = "benchmark-password";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${security.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${security.password.benchmark-on-startup:false}")
+    private boolean enabled;
+
+    @Value("${security.password.benchmark-iterations:5}")
+    private int iterations;
+
+    /**
+     * Ejecuta la medición cuando la aplicación está lista
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            double millisPerHash = measure();
+            log.info("Hashing de contraseñas ({}): {} ms por hash", passwordAlgorithm,
+                    String.format("%.1f", millisPerHash));
+        }
+    }
+
+    /**
+     * Devuelve el tiempo medio en milisegundos de encode + matches
+     */
+    public double measure() {
+        // Primera ejecución descartada (carga de clases y JIT)
+        String hash = passwordEncoder.encode(SAMPLE_PASSWORD);
+        passwordEncoder.matches(SAMPLE_PASSWORD, hash);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            hash = passwordEncoder.encode(SAMPLE_PASSWORD);
+            passwordEncoder.matches(SAMPLE_PASSWORD, hash);
+        }
+        long elapsed = System.nanoTime() - start;
+        return elapsed / 1_000_000.0 / (iterations * 2);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.jwtapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envía las transacciones de solo lectura al pool de lectura y el resto al de escritura.
+ * Debe envolverse en un LazyConnectionDataSourceProxy: así la conexión se pide al ejecutar
+ * la primera sentencia, cuando la transacción ya está marcada como readOnly.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        WRITE,
+        READ
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.jwtapi.config;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Modo de ejecución con hilos virtuales (perfil virtual-threads o spring.threads.virtual.enabled=true).
+ * En JDK 21+ Spring Boot atiende cada petición de Tomcat en un hilo virtual y usa hilos virtuales en el
+ * executor de tareas (@Async, applicationTaskExecutor). En JDK 17 la propiedad se ignora y se avisa al arrancar.
+ *
+ * Riesgos de "pinning" (el hilo virtual bloquea su hilo portador) en JDK 21-23:
+ * - Bloqueos dentro de synchronized: el driver de H2 sincroniza cada sentencia sobre la sesión, así que
+ *   las consultas JDBC fijan el portador mientras duran. El número de hilos fijados queda acotado por el
+ *   pool de HikariCP (app.datasource.pool.maximum-pool-size), que conviene mantener por debajo de los
+ *   núcleos disponibles cuando la base es H2 embebida. El driver de PostgreSQL (42.6+) usa ReentrantLock.
+ * - BCrypt es trabajo de CPU: sigue en el pool acotado de PasswordHashingExecutor, que además es el que
+ *   rechaza la carga sobrante; moverlo a hilos virtuales no añade throughput y elimina ese límite.
+ * - Con hilos virtuales server.tomcat.threads.max ya no limita la concurrencia: el límite real es el pool de
+ *   conexiones, y las peticiones que no consiguen conexión esperan hasta connection-timeout.
+ * Para detectar pinning: -Djdk.tracePinnedThreads=short (JDK 21-23) o el evento JFR jdk.VirtualThreadPinned.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * Indica si las peticiones se atienden con hilos virtuales (propiedad activa y JDK 21+)
+     */
+    public boolean isActive() {
+        return virtualThreadsEnabled && isSupported();
+    }
+
+    /**
+     * Hilos virtuales disponibles en la JVM actual
+     */
+    public static boolean isSupported() {
+        return JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    /**
+     * Informa al arrancar del modo de ejecución de las peticiones
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        checkRuntime().ifPresentOrElse(log::warn, () -> {
+            if (isActive()) {
+                log.info("Peticiones y tareas asíncronas en hilos virtuales");
+            }
+        });
+    }
+
+    /**
+     * Devuelve un aviso si se pidieron hilos virtuales en un JDK que no los soporta
+     */
+    public Optional<String> checkRuntime() {
+        if (virtualThreadsEnabled && !isSupported()) {
+            return Optional.of(String.format("spring.threads.virtual.enabled=true se ignora en Java %s: "
+                    + "los hilos virtuales requieren JDK 21+; las peticiones siguen en el pool de Tomcat",
+                    JavaVersion.getJavaVersion()));
+        }
+        return Optional.empty();
+    }
+}
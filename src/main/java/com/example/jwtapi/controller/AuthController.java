@@ -4,6 +4,7 @@ import com.example.jwtapi.dto.JwtResponse;
 import com.example.jwtapi.dto.LoginRequest;
 import com.example.jwtapi.model.User;
 import com.example.jwtapi.service.AuthService;
+import com.example.jwtapi.service.HashingCapacityExceededException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,13 +35,16 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Autenticación exitosa",
                     content = @Content(schema = @Schema(implementation = JwtResponse.class))),
-            @ApiResponse(responseCode = "400", description = "Credenciales inválidas")
+            @ApiResponse(responseCode = "400", description = "Credenciales inválidas"),
+            @ApiResponse(responseCode = "503", description = "Servicio de autenticación saturado")
     })
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
             JwtResponse response = authService.authenticateUser(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (HashingCapacityExceededException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body("Error en la autenticación: " + e.getMessage());
@@ -53,13 +59,16 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Registro exitoso",
                     content = @Content(schema = @Schema(implementation = JwtResponse.class))),
-            @ApiResponse(responseCode = "400", description = "Datos de usuario inválidos")
+            @ApiResponse(responseCode = "400", description = "Datos de usuario inválidos"),
+            @ApiResponse(responseCode = "503", description = "Servicio de autenticación saturado")
     })
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody User user) {
         try {
             JwtResponse response = authService.registerUser(user);
             return ResponseEntity.ok(response);
+        } catch (HashingCapacityExceededException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body("Error en el registro: " + e.getMessage());
@@ -78,4 +87,13 @@ public class AuthController {
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("API JWT funcionando correctamente");
     }
+
+    /**
+     * Respuesta 503 cuando el pool de hashing rechaza la petición
+     */
+    private ResponseEntity<String> serviceUnavailable(HashingCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
 }
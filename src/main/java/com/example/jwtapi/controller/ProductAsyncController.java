@@ -0,0 +1,181 @@
+package com.example.jwtapi.controller;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.jwtapi.dto.PageResponse;
+import com.example.jwtapi.dto.ProductView;
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.service.ProductQueryExecutor;
+import com.example.jwtapi.service.ProductService;
+import com.example.jwtapi.service.QueryCapacityExceededException;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Variantes asíncronas de las lecturas de productos.
+ * Cada handler devuelve un CompletableFuture: el hilo de Tomcat se libera mientras la consulta se ejecuta
+ * en ProductQueryExecutor y la respuesta se escribe al completarse (Servlet async).
+ * Las respuestas son las mismas que en /api/products; si el pool de consultas está saturado se responde 503.
+ */
+@RestController
+@RequestMapping("/api/products/async")
+@CrossOrigin(origins = "*")
+@Tag(name = "Productos (asíncrono)", description = "Lecturas de productos que no ocupan hilos de Tomcat durante la consulta")
+public class ProductAsyncController {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductQueryExecutor productQueryExecutor;
+
+    /**
+     * Obtener productos
+     * GET /api/products/async
+     * GET /api/products/async?page={page}&size={size}&sort={campo,dir}
+     * GET /api/products/async?after={id}&size={size}
+     * GET /api/products/async?view=summary (combinable con los anteriores)
+     */
+    @Operation(summary = "Obtener productos (asíncrono)", description = "Igual que GET /api/products: sin parámetros "
+            + "retorna la primera página, con page/size/sort la página pedida y con after la página siguiente al cursor. "
+            + "Con view=summary cada página trae la proyección ligera")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = PageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación o vista inválidos"),
+            @ApiResponse(responseCode = "503", description = "Servicio de productos saturado")
+    })
+    @GetMapping
+    public CompletableFuture<ResponseEntity<?>> getAllProducts(
+            @Parameter(description = "Número de página, empezando en 0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Tamaño de página (máximo 100, por defecto 20)")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Orden: campo[,asc|desc] con campo en id, name, price, createdAt")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor keyset: retorna productos con ID mayor a este valor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = ProductController.VIEW_DESCRIPTION)
+            @RequestParam(required = false) String view) {
+        ProductView productView = ProductView.from(view);
+        return productQueryExecutor.submit(() ->
+                ResponseEntity.ok(productService.listProducts(page, size, sort, after, productView)));
+    }
+
+    /**
+     * Obtener un producto por ID
+     * GET /api/products/async/{id}
+     */
+    @Operation(summary = "Obtener producto por ID (asíncrono)", description = "Retorna un producto específico por su ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Producto encontrado exitosamente",
+                    content = @Content(schema = @Schema(implementation = Product.class))),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "503", description = "Servicio de productos saturado")
+    })
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Product>> getProductById(
+            @Parameter(description = "ID del producto a buscar", required = true)
+            @PathVariable Long id) {
+        return productQueryExecutor.submit(() -> productService.getProductById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Buscar productos por nombre
+     * GET /api/products/async/search?name={name}
+     */
+    @Operation(summary = "Buscar productos por nombre (asíncrono)", description = "Busca productos que contengan el texto especificado en su nombre")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente",
+                    content = @Content(schema = @Schema(implementation = Product.class))),
+            @ApiResponse(responseCode = "503", description = "Servicio de productos saturado")
+    })
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<List<Product>>> searchProductsByName(
+            @Parameter(description = "Nombre del producto a buscar", required = true)
+            @RequestParam String name) {
+        return productQueryExecutor.submit(() -> ResponseEntity.ok(productService.searchProductsByName(name)));
+    }
+
+    /**
+     * Búsqueda de texto en nombre y descripción con ranking por relevancia
+     * GET /api/products/async/search/text?q={texto}&page={page}&size={size}
+     */
+    @Operation(summary = "Buscar productos por texto (asíncrono)", description = "Busca el texto en nombre y descripción "
+            + "y retorna una página ordenada por relevancia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos"),
+            @ApiResponse(responseCode = "503", description = "Servicio de productos saturado")
+    })
+    @GetMapping("/search/text")
+    public CompletableFuture<ResponseEntity<PageResponse<Product>>> searchProducts(
+            @Parameter(description = "Texto a buscar", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Número de página, empezando en 0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página (máximo 100, por defecto 20)")
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int size) {
+        return productQueryExecutor.submit(() -> ResponseEntity.ok(productService.searchProducts(q, page, size)));
+    }
+
+    /**
+     * Buscar productos por rango de precio
+     * GET /api/products/async/search/price?minPrice={min}&maxPrice={max}
+     */
+    @Operation(summary = "Buscar productos por rango de precio (asíncrono)", description = "Busca productos dentro de un rango de precios")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente",
+                    content = @Content(schema = @Schema(implementation = Product.class))),
+            @ApiResponse(responseCode = "503", description = "Servicio de productos saturado")
+    })
+    @GetMapping("/search/price")
+    public CompletableFuture<ResponseEntity<List<Product>>> searchProductsByPriceRange(
+            @Parameter(description = "Precio mínimo del producto", required = true)
+            @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Precio máximo del producto", required = true)
+            @RequestParam BigDecimal maxPrice) {
+        return productQueryExecutor.submit(() ->
+                ResponseEntity.ok(productService.searchProductsByPriceRange(minPrice, maxPrice)));
+    }
+
+    /**
+     * Parámetros inválidos detectados por el servicio
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Pool de consultas saturado
+     */
+    @ExceptionHandler(QueryCapacityExceededException.class)
+    public ResponseEntity<String> handleQueryCapacityExceeded(QueryCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.jwtapi.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,10 +23,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.jwtapi.dto.BulkOperationResponse;
+import com.example.jwtapi.dto.PageResponse;
+import com.example.jwtapi.dto.ProductView;
 import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.service.InsufficientStockException;
+import com.example.jwtapi.service.ProductBulkService;
+import com.example.jwtapi.service.ProductExportService;
 import com.example.jwtapi.service.ProductService;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -37,22 +54,71 @@ import jakarta.validation.Valid;
 @Tag(name = "Productos", description = "Endpoints para gestión de productos")
 public class ProductController {
 
+    static final String VIEW_DESCRIPTION = "Vista de la respuesta: full (por defecto) devuelve los productos "
+            + "completos; summary devuelve solo id, name, price y stock, leídos con una proyección ligera";
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * Obtener todos los productos
+     * Obtener productos
      * GET /api/products
+     * GET /api/products?page={page}&size={size}&sort={campo,dir}
+     * GET /api/products?after={id}&size={size}
+     * GET /api/products?view=summary (combinable con los anteriores)
      */
-    @Operation(summary = "Obtener todos los productos", description = "Retorna una lista de todos los productos disponibles")
+    @Operation(summary = "Obtener productos", description = "Retorna una página de productos: sin parámetros la primera "
+            + "página de 20 por ID; con page/size/sort la página pedida y con after la página siguiente al cursor (ID). "
+            + "Con view=summary cada página trae la proyección ligera")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de productos obtenida exitosamente",
-                    content = @Content(schema = @Schema(implementation = Product.class)))
+            @ApiResponse(responseCode = "200", description = "Página de productos obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = PageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación o vista inválidos")
     })
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getAllProducts(
+            @Parameter(description = "Número de página, empezando en 0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Tamaño de página (máximo 100, por defecto 20)")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Orden: campo[,asc|desc] con campo en id, name, price, createdAt")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor keyset: retorna productos con ID mayor a este valor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = VIEW_DESCRIPTION)
+            @RequestParam(required = false) String view) {
+        try {
+            return ResponseEntity.ok(productService.listProducts(page, size, sort, after, ProductView.from(view)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Exportar el catálogo completo en NDJSON
+     * GET /api/products/export
+     */
+    @Operation(summary = "Exportar productos", description = "Exporta todos los productos en formato NDJSON "
+            + "(un producto JSON por línea), enviados en streaming ordenados por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en curso",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = outputStream -> productExportService.exportAsNdjson(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -94,16 +160,73 @@ public class ProductController {
         }
     }
 
+    /**
+     * Crear productos en bloque
+     * POST /api/products/bulk (array JSON o NDJSON)
+     */
+    @Operation(summary = "Crear productos en bloque", description = "Crea productos a partir de un array JSON o de NDJSON "
+            + "(un producto por línea). Se leen en streaming y se guardan en bloques con inserciones por lotes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Productos creados exitosamente",
+                    content = @Content(schema = @Schema(implementation = BulkOperationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos de algún producto inválidos")
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createProducts(InputStream body) throws IOException {
+        try (MappingIterator<Product> products = objectMapper.readerFor(Product.class).readValues(body)) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(productBulkService.createAll(products));
+        } catch (IllegalArgumentException | JsonProcessingException | RuntimeJsonMappingException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Actualizar productos en bloque
+     * PUT /api/products/bulk (array JSON o NDJSON, cada producto con su id)
+     */
+    @Operation(summary = "Actualizar productos en bloque", description = "Actualiza productos a partir de un array JSON "
+            + "o de NDJSON; cada producto debe incluir su id y opcionalmente su version")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos actualizados; missingIds lista los que no existen",
+                    content = @Content(schema = @Schema(implementation = BulkOperationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos de algún producto inválidos"),
+            @ApiResponse(responseCode = "409", description = "Algún producto fue modificado por otra petición")
+    })
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> updateProducts(InputStream body) throws IOException {
+        try (MappingIterator<Product> products = objectMapper.readerFor(Product.class).readValues(body)) {
+            return ResponseEntity.ok(productBulkService.updateAll(products));
+        } catch (IllegalArgumentException | JsonProcessingException | RuntimeJsonMappingException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Eliminar productos en bloque
+     * POST /api/products/bulk/delete (array JSON de IDs)
+     */
+    @Operation(summary = "Eliminar productos en bloque", description = "Elimina los productos cuyos IDs se envían en un array JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Número de productos eliminados",
+                    content = @Content(schema = @Schema(implementation = BulkOperationResponse.class)))
+    })
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationResponse> deleteProducts(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productBulkService.deleteAll(ids));
+    }
+
     /**
      * Actualizar un producto existente
      * PUT /api/products/{id}
      */
-    @Operation(summary = "Actualizar producto", description = "Actualiza un producto existente con nuevos datos")
+    @Operation(summary = "Actualizar producto", description = "Actualiza un producto existente con nuevos datos. "
+            + "Si se envía version y no coincide con la actual responde 409; sin version se reintenta ante conflictos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente",
                     content = @Content(schema = @Schema(implementation = Product.class))),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
-            @ApiResponse(responseCode = "400", description = "Datos del producto inválidos")
+            @ApiResponse(responseCode = "400", description = "Datos del producto inválidos"),
+            @ApiResponse(responseCode = "409", description = "El producto fue modificado por otra petición")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
@@ -147,13 +270,49 @@ public class ProductController {
                     content = @Content(schema = @Schema(implementation = Product.class)))
     })
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProductsByName(
+    public ResponseEntity<?> searchProductsByName(
             @Parameter(description = "Nombre del producto a buscar", required = true)
-            @RequestParam String name) {
+            @RequestParam String name,
+            @Parameter(description = VIEW_DESCRIPTION)
+            @RequestParam(required = false) String view) {
+        try {
+            if (ProductView.from(view) == ProductView.SUMMARY) {
+                return ResponseEntity.ok(productService.searchProductSummariesByName(name));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
         List<Product> products = productService.searchProductsByName(name);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Búsqueda de texto en nombre y descripción
+     * GET /api/products/search/text?q={q}&page={page}&size={size}
+     */
+    @Operation(summary = "Búsqueda de texto de productos", description = "Busca productos cuyo nombre o descripción "
+            + "contengan todos los términos, ordenados por relevancia (sin distinguir mayúsculas ni acentos); "
+            + "si ningún término llega a 3 caracteres se busca el texto como subcadena")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente",
+                    content = @Content(schema = @Schema(implementation = PageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos")
+    })
+    @GetMapping("/search/text")
+    public ResponseEntity<?> searchProducts(
+            @Parameter(description = "Texto a buscar", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Número de página, empezando en 0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página (máximo 100, por defecto 20)")
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(productService.searchProducts(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Buscar productos por rango de precio
      * GET /api/products/search/price?minPrice={minPrice}&maxPrice={maxPrice}
@@ -164,11 +323,20 @@ public class ProductController {
                     content = @Content(schema = @Schema(implementation = Product.class)))
     })
     @GetMapping("/search/price")
-    public ResponseEntity<List<Product>> searchProductsByPriceRange(
+    public ResponseEntity<?> searchProductsByPriceRange(
             @Parameter(description = "Precio mínimo del producto", required = true)
             @RequestParam BigDecimal minPrice,
             @Parameter(description = "Precio máximo del producto", required = true)
-            @RequestParam BigDecimal maxPrice) {
+            @RequestParam BigDecimal maxPrice,
+            @Parameter(description = VIEW_DESCRIPTION)
+            @RequestParam(required = false) String view) {
+        try {
+            if (ProductView.from(view) == ProductView.SUMMARY) {
+                return ResponseEntity.ok(productService.searchProductSummariesByPriceRange(minPrice, maxPrice));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
         List<Product> products = productService.searchProductsByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(products);
     }
@@ -183,9 +351,18 @@ public class ProductController {
                     content = @Content(schema = @Schema(implementation = Product.class)))
     })
     @GetMapping("/stock")
-    public ResponseEntity<List<Product>> getProductsWithStock(
+    public ResponseEntity<?> getProductsWithStock(
             @Parameter(description = "Stock mínimo requerido (por defecto: 0)")
-            @RequestParam(defaultValue = "0") Integer minStock) {
+            @RequestParam(defaultValue = "0") Integer minStock,
+            @Parameter(description = VIEW_DESCRIPTION)
+            @RequestParam(required = false) String view) {
+        try {
+            if (ProductView.from(view) == ProductView.SUMMARY) {
+                return ResponseEntity.ok(productService.getProductSummariesWithStock(minStock));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
         List<Product> products = productService.getProductsWithStock(minStock);
         return ResponseEntity.ok(products);
     }
@@ -229,7 +406,8 @@ public class ProductController {
      * Actualizar stock de un producto
      * PATCH /api/products/{id}/stock
      */
-    @Operation(summary = "Actualizar stock de producto", description = "Actualiza únicamente el stock de un producto específico")
+    @Operation(summary = "Actualizar stock de producto", description = "Fija el stock de un producto específico "
+            + "con una única sentencia UPDATE")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stock actualizado exitosamente",
                     content = @Content(schema = @Schema(implementation = Product.class))),
@@ -247,4 +425,69 @@ public class ProductController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    /**
+     * Incrementar el stock de un producto
+     * POST /api/products/{id}/stock/increment?amount={amount}
+     */
+    @Operation(summary = "Incrementar stock de producto", description = "Suma unidades al stock de forma atómica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Stock incrementado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cantidad inválida"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    @PostMapping("/{id}/stock/increment")
+    public ResponseEntity<?> incrementStock(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Unidades a sumar (mayor a 0)", required = true)
+            @RequestParam int amount) {
+        try {
+            if (productService.incrementStock(id, amount)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Reservar unidades de un producto
+     * POST /api/products/{id}/stock/reserve?amount={amount}
+     */
+    @Operation(summary = "Reservar stock de producto", description = "Resta unidades del stock de forma atómica "
+            + "solo si hay unidades suficientes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Stock reservado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cantidad inválida"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Stock insuficiente")
+    })
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<?> reserveStock(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Unidades a reservar (mayor a 0)", required = true)
+            @RequestParam int amount) {
+        try {
+            if (productService.reserveStock(id, amount)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Conflicto de bloqueo optimista: el producto cambió desde que se leyó
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("El producto fue modificado por otra petición; vuelva a leerlo e intente de nuevo");
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.jwtapi.dto;
+
+import java.util.List;
+
+public class BulkOperationResponse {
+
+    private int count;
+    private List<Long> ids;
+    private List<Long> missingIds;
+
+    public BulkOperationResponse() {}
+
+    public BulkOperationResponse(int count, List<Long> ids, List<Long> missingIds) {
+        this.count = count;
+        this.ids = ids;
+        this.missingIds = missingIds;
+    }
+
+    // Getters y Setters
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
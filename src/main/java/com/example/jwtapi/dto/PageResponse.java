@@ -0,0 +1,63 @@
+package com.example.jwtapi.dto;
+
+import java.util.List;
+
+public class PageResponse<T> {
+
+    private List<T> content;
+    private Integer page;
+    private int size;
+    private boolean hasNext;
+    private Long nextCursor;
+
+    public PageResponse() {}
+
+    public PageResponse(List<T> content, Integer page, int size, boolean hasNext, Long nextCursor) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.jwtapi.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección ligera de Product para listados: no incluye descripción ni fechas
+ * y no es una entidad gestionada, así que Hibernate no guarda snapshots de ella.
+ */
+public record ProductSummary(Long id, String name, BigDecimal price, Integer stock) {
+}
@@ -0,0 +1,26 @@
+package com.example.jwtapi.dto;
+
+/**
+ * Vista de los listados de productos: FULL devuelve la entidad completa y SUMMARY
+ * siempre las mismas cuatro columnas de ProductSummary (id, name, price, stock).
+ */
+public enum ProductView {
+    FULL,
+    SUMMARY;
+
+    /**
+     * Convierte el parámetro "view" de la petición; sin valor se usa FULL
+     * Lanza IllegalArgumentException si el valor no es full ni summary
+     */
+    public static ProductView from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        for (ProductView view : values()) {
+            if (view.name().equalsIgnoreCase(value.trim())) {
+                return view;
+            }
+        }
+        throw new IllegalArgumentException("Vista desconocida: " + value + " (valores permitidos: full, summary)");
+    }
+}
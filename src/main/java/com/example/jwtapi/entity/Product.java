@@ -1,5 +1,6 @@
 package com.example.jwtapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -10,11 +11,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_stock", columnList = "stock")
+})
 public class Product {
     
+    /**
+     * Secuencia con optimizador pooled: Hibernate reserva 50 IDs por consulta a la secuencia,
+     * lo que permite agrupar los INSERT en lotes JDBC (IDENTITY lo impide)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "El nombre del producto es obligatorio")
@@ -22,6 +31,15 @@ public class Product {
     @Column(nullable = false, length = 100)
     private String name;
     
+    /**
+     * LOWER(name) calculado por la base de datos al escribir; las búsquedas por nombre comparan
+     * con esta columna en lugar de evaluar LOWER(name) en cada fila
+     */
+    @JsonIgnore
+    @Column(name = "name_lower", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(100) GENERATED ALWAYS AS (LOWER(name))")
+    private String nameLower;
+    
     @Size(max = 500, message = "La descripción no puede exceder 500 caracteres")
     @Column(length = 500)
     private String description;
@@ -35,6 +53,13 @@ public class Product {
     @Column(nullable = false)
     private Integer stock;
     
+    /**
+     * Versión para bloqueo optimista; la incrementa cada escritura
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -55,6 +80,21 @@ public class Product {
         this.stock = stock;
     }
     
+    /**
+     * Constructor de copia (para no compartir instancias fuera de la caché)
+     */
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.nameLower = other.nameLower;
+        this.description = other.description;
+        this.price = other.price;
+        this.stock = other.stock;
+        this.version = other.version;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+    
     // Getters y Setters
     public Long getId() {
         return id;
@@ -72,6 +112,10 @@ public class Product {
         this.name = name;
     }
     
+    public String getNameLower() {
+        return nameLower;
+    }
+    
     public String getDescription() {
         return description;
     }
@@ -96,6 +140,14 @@ public class Product {
         this.stock = stock;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -125,6 +177,7 @@ public class Product {
                 ", description='" + description + '\'' +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", version=" + version +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
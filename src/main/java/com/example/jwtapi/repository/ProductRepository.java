@@ -1,22 +1,46 @@
 package com.example.jwtapi.repository;
 
+import com.example.jwtapi.dto.ProductSummary;
 import com.example.jwtapi.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     /**
      * Buscar productos por nombre (case insensitive)
+     * Compara con la columna generada name_lower, así LOWER solo se aplica al parámetro;
+     * % y _ se escapan igual que en la consulta derivada
      */
+    @Query("SELECT p FROM Product p WHERE p.nameLower LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) "
+            + "ESCAPE ?#{escapeCharacter()}")
     List<Product> findByNameContainingIgnoreCase(String name);
     
+    /**
+     * Buscar una página de productos cuyo nombre o descripción contengan el texto (case insensitive)
+     * % y _ se escapan como en findByNameContainingIgnoreCase
+     */
+    @Query("SELECT p FROM Product p WHERE p.nameLower LIKE LOWER(CONCAT('%', :#{escape(#text)}, '%')) "
+            + "ESCAPE :#{escapeCharacter()} "
+            + "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :#{escape(#text)}, '%')) ESCAPE :#{escapeCharacter()}")
+    Slice<Product> findByNameOrDescriptionContaining(@Param("text") String text, Pageable pageable);
+    
     /**
      * Buscar productos por rango de precio
      */
@@ -29,12 +53,122 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     /**
      * Buscar productos por nombre y precio máximo
+     * % y _ se escapan como en findByNameContainingIgnoreCase
      */
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND p.price <= :maxPrice")
+    @Query("SELECT p FROM Product p WHERE p.nameLower LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) "
+            + "ESCAPE :#{escapeCharacter()} AND p.price <= :maxPrice")
     List<Product> findByNameContainingAndPriceLessThanEqual(@Param("name") String name, @Param("maxPrice") BigDecimal maxPrice);
     
     /**
      * Contar productos por stock
      */
     long countByStockGreaterThan(Integer minStock);
+    
+    /**
+     * Obtener una página de productos (Slice: sin consulta de conteo)
+     */
+    Slice<Product> findAllBy(Pageable pageable);
+    
+    /**
+     * Obtener productos con ID mayor al cursor (paginación keyset)
+     */
+    Slice<Product> findByIdGreaterThan(Long id, Pageable pageable);
+    
+    /**
+     * Recorrer todos los productos con un cursor de solo lectura, ordenados por ID
+     * Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderedById();
+    
+    /**
+     * Fijar el stock de un producto en una sola sentencia UPDATE
+     * Todas las actualizaciones masivas incrementan la versión para invalidar escrituras optimistas en curso
+     * Devuelve el número de filas afectadas (0 si el producto no existe)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = :stock, p.updatedAt = :updatedAt, p.version = p.version + 1 "
+            + "WHERE p.id = :id")
+    int updateStock(@Param("id") Long id, @Param("stock") Integer stock, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Incrementar el stock de un producto de forma atómica
+     * Devuelve el número de filas afectadas (0 si el producto no existe)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :amount, p.updatedAt = :updatedAt, p.version = p.version + 1 "
+            + "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("amount") int amount, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Decrementar el stock solo si hay unidades suficientes (stock >= amount)
+     * Devuelve 0 si el producto no existe o no tiene stock suficiente
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock - :amount, p.updatedAt = :updatedAt, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.stock >= :amount")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("amount") int amount,
+                                  @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Eliminar un producto por ID en una sola sentencia DELETE, sin cargar la entidad
+     * Devuelve el número de filas eliminadas (0 si el producto no existe)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteProductById(@Param("id") Long id);
+    
+    /**
+     * Eliminar productos por IDs en una sola sentencia DELETE
+     * Devuelve el número de filas eliminadas
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Obtener una página de productos como proyección (id, name, price, stock)
+     */
+    @Query("SELECT new com.example.jwtapi.dto.ProductSummary(p.id, p.name, p.price, p.stock) FROM Product p")
+    Slice<ProductSummary> findSummariesBy(Pageable pageable);
+    
+    /**
+     * Obtener productos con ID mayor al cursor como proyección (paginación keyset)
+     */
+    @Query("SELECT new com.example.jwtapi.dto.ProductSummary(p.id, p.name, p.price, p.stock) FROM Product p "
+            + "WHERE p.id > :id")
+    Slice<ProductSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+    
+    /**
+     * Buscar productos por nombre (case insensitive) como proyección
+     * Mismo filtro que findByNameContainingIgnoreCase: la vista solo cambia las columnas
+     */
+    @Query("SELECT new com.example.jwtapi.dto.ProductSummary(p.id, p.name, p.price, p.stock) FROM Product p "
+            + "WHERE p.nameLower LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE :#{escapeCharacter()}")
+    List<ProductSummary> findSummariesByNameContaining(@Param("name") String name);
+    
+    /**
+     * Buscar productos por rango de precio como proyección
+     */
+    @Query("SELECT new com.example.jwtapi.dto.ProductSummary(p.id, p.name, p.price, p.stock) FROM Product p "
+            + "WHERE p.price BETWEEN :minPrice AND :maxPrice")
+    List<ProductSummary> findSummariesByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+                                                     @Param("maxPrice") BigDecimal maxPrice);
+    
+    /**
+     * Buscar productos con stock disponible como proyección
+     */
+    @Query("SELECT new com.example.jwtapi.dto.ProductSummary(p.id, p.name, p.price, p.stock) FROM Product p "
+            + "WHERE p.stock > :minStock")
+    List<ProductSummary> findSummariesByStockGreaterThan(@Param("minStock") Integer minStock);
 }
@@ -3,6 +3,8 @@ package com.example.jwtapi.service;
 import com.example.jwtapi.dto.JwtResponse;
 import com.example.jwtapi.dto.LoginRequest;
 import com.example.jwtapi.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,10 +15,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 @Service
 public class AuthService {
 
+    static final String LOGIN_METRIC = "auth.login";
+    static final String PASSWORD_HASHING_METRIC = "auth.password.hashing";
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -29,21 +35,43 @@ public class AuthService {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Autentica un usuario y genera un token JWT
+     * La verificación BCrypt se ejecuta en el pool de hashing, no en el hilo de la petición.
+     * La duración se publica en auth.login con outcome=success|failure|rejected (rejected: pool de hashing saturado).
      */
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
-
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtService.generateToken(userDetails);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Authentication authentication = passwordHashingExecutor.execute(timedHashing("verify",
+                    () -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    loginRequest.getUsername(),
+                                    loginRequest.getPassword()
+                            )
+                    )));
 
-        return new JwtResponse(token, userDetails.getUsername(), "");
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            String token = jwtService.generateToken(userDetails);
+
+            outcome = "success";
+            return new JwtResponse(token, userDetails.getUsername(), "");
+        } catch (HashingCapacityExceededException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(LOGIN_METRIC)
+                    .description("Duración de los intentos de login por resultado")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
     }
 
     /**
@@ -52,7 +80,8 @@ public class AuthService {
     public JwtResponse registerUser(User user) {
         // En un caso real, aquí guardarías el usuario en la base de datos
         // Por ahora, simulamos la creación del usuario
-        String encodedPassword = passwordEncoder.encode(user.getPassword());
+        String encodedPassword = passwordHashingExecutor.execute(timedHashing("encode",
+                () -> passwordEncoder.encode(user.getPassword())));
         
         // Crear UserDetails para el nuevo usuario
         UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
@@ -65,4 +94,15 @@ public class AuthService {
 
         return new JwtResponse(token, user.getUsername(), user.getEmail());
     }
+
+    /**
+     * Mide el tiempo de hashing (BCrypt) dentro del hilo del pool, sin incluir la espera en cola
+     */
+    private <T> Supplier<T> timedHashing(String operation, Supplier<T> task) {
+        Timer timer = Timer.builder(PASSWORD_HASHING_METRIC)
+                .description("Tiempo de cálculo y verificación de hashes de contraseña")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return () -> timer.record(task);
+    }
 }
@@ -1,15 +1,32 @@
 package com.example.jwtapi.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    /**
+     * Hash BCrypt (coste 10) de la contraseña de ejemplo "admin123"
+     */
+    static final String ADMIN_PASSWORD_HASH = "$2a$10$i04LA.TI9RioiM8hWL5JvuC23QQsT84q0o3Kmbb2n7oaT6.1kwzLu";
+
+    /**
+     * Credenciales ya hasheadas por nombre de usuario, cargadas una sola vez
+     */
+    private final Map<String, String> passwordHashes = new ConcurrentHashMap<>();
+
+    public CustomUserDetailsService() {
+        // En un caso real, esto se cargaría desde la base de datos
+        passwordHashes.put("admin", ADMIN_PASSWORD_HASH);
+    }
 
     /**
      * Carga un usuario por nombre de usuario
@@ -17,17 +34,29 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Por simplicidad, creamos un usuario de ejemplo
-        // En un caso real, esto consultaría la base de datos
-        if ("admin".equals(username)) {
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-            return org.springframework.security.core.userdetails.User.builder()
-                    .username("admin")
-                    .password(encoder.encode("admin123"))
-                    .authorities(new ArrayList<>())
-                    .build();
+        String passwordHash = username != null ? passwordHashes.get(username) : null;
+        if (passwordHash == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
         }
-        
-        throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+
+        // Se crea un UserDetails nuevo en cada llamada porque ProviderManager
+        // borra las credenciales del principal tras autenticar
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(username)
+                .password(passwordHash)
+                .authorities(new ArrayList<>())
+                .build();
+    }
+
+    /**
+     * Guarda el nuevo hash de un usuario
+     * DaoAuthenticationProvider lo invoca tras un login correcto cuando el hash debe actualizarse
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        passwordHashes.computeIfPresent(user.getUsername(), (username, oldHash) -> newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
     }
 }
@@ -0,0 +1,16 @@
+package com.example.jwtapi.service;
+
+/**
+ * Se lanza cuando el pool de hashing de contraseñas está saturado
+ * y la petición debe rechazarse de inmediato.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public HashingCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
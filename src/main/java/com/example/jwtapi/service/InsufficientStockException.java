@@ -0,0 +1,11 @@
+package com.example.jwtapi.service;
+
+/**
+ * Se lanza cuando una reserva pide más unidades de las que hay en stock.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
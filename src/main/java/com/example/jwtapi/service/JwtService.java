@@ -1,29 +1,123 @@
 package com.example.jwtapi.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    /**
+     * Claim con las autoridades del usuario, usado por el filtro de autenticación
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    static final String ISSUE_METRIC = "jwt.token.issue";
+    static final String VERIFY_METRIC = "jwt.token.verify";
+    static final String VERIFY_FAILURES_METRIC = "jwt.token.verify.failures";
+
+    /**
+     * Causas de fallo de verificación publicadas en la etiqueta cause
+     */
+    static final List<String> FAILURE_CAUSES = List.of("expired", "signature", "malformed", "unsupported", "invalid");
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.cache.enabled:false}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Clave de firma derivada una única vez de jwt.secret
+     */
+    private SecretKey signInKey;
+
+    /**
+     * Parser inmutable y thread-safe reutilizado en todas las verificaciones
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * Caché opcional de tokens verificados (null si está deshabilitada)
+     */
+    private VerifiedTokenCache tokenCache;
+
+    /**
+     * Tiempo de firma de tokens
+     */
+    private Timer issueTimer;
+
+    /**
+     * Tiempo de verificación de firma y decodificación (los aciertos de caché no pasan por aquí)
+     */
+    private Timer verifyTimer;
+
+    private Map<String, Counter> failureCounters;
+
+    /**
+     * Decodifica la clave, construye el parser y registra las métricas al iniciar el servicio
+     */
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts
+                .parser()
+                .verifyWith(signInKey)
+                .build();
+        this.tokenCache = tokenCacheEnabled ? new VerifiedTokenCache(tokenCacheMaxSize) : null;
+        if (tokenCache != null) {
+            tokenCache.monitor(meterRegistry, "jwt.tokens");
+        }
+
+        this.issueTimer = Timer.builder(ISSUE_METRIC)
+                .description("Tiempo de generación y firma de tokens JWT")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder(VERIFY_METRIC)
+                .description("Tiempo de verificación de firma de tokens JWT")
+                .register(meterRegistry);
+        this.failureCounters = new HashMap<>();
+        for (String cause : FAILURE_CAUSES) {
+            failureCounters.put(cause, Counter.builder(VERIFY_FAILURES_METRIC)
+                    .description("Tokens JWT rechazados por causa")
+                    .tag("cause", cause)
+                    .register(meterRegistry));
+        }
+    }
+
     /**
      * Genera un token JWT para un usuario
      */
@@ -35,7 +129,14 @@ public class JwtService {
      * Genera un token JWT con claims adicionales
      */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = extraClaims;
+        if (!userDetails.getAuthorities().isEmpty() && !extraClaims.containsKey(ROLES_CLAIM)) {
+            claims = new HashMap<>(extraClaims);
+            claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+        }
+        return buildToken(claims, userDetails, jwtExpiration);
     }
 
     /**
@@ -46,70 +147,99 @@ public class JwtService {
             UserDetails userDetails,
             long expiration
     ) {
-        return Jwts
-                .builder()
-                .claims(extraClaims)
-                .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return issueTimer.record(() -> {
+            long now = System.currentTimeMillis();
+            return Jwts
+                    .builder()
+                    .claims(extraClaims)
+                    .subject(userDetails.getUsername())
+                    .issuedAt(new Date(now))
+                    .expiration(new Date(now + expiration))
+                    .signWith(signInKey, Jwts.SIG.HS256)
+                    .compact();
+        });
     }
 
     /**
-     * Extrae el nombre de usuario del token
+     * Verifica la firma del token una sola vez y devuelve sus claims.
+     * Lanza JwtException si el token es inválido o ha expirado.
      */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public VerifiedClaims validateAndParse(String token) {
+        if (tokenCache != null) {
+            return tokenCache.get(token, this::parseAndVerify);
+        }
+        return parseAndVerify(token);
     }
 
     /**
-     * Extrae un claim específico del token
+     * Caché de tokens verificados, si está habilitada
      */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public Optional<VerifiedTokenCache> getTokenCache() {
+        return Optional.ofNullable(tokenCache);
     }
 
     /**
-     * Extrae todos los claims del token
+     * Verifica la firma y decodifica el token sin pasar por la caché.
+     * Los rechazos se cuentan en jwt.token.verify.failures según su causa.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private VerifiedClaims parseAndVerify(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = jwtParser
+                    .parseSignedClaims(token)
+                    .getPayload();
+            return new VerifiedClaims(claims);
+        } catch (RuntimeException e) {
+            failureCounters.get(failureCause(e)).increment();
+            throw e;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
-     * Verifica si el token es válido para el usuario
+     * Clasifica la excepción de verificación en una de FAILURE_CAUSES
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    static String failureCause(RuntimeException e) {
+        if (e instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (e instanceof SignatureException) {
+            return "signature";
+        }
+        if (e instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        if (e instanceof UnsupportedJwtException) {
+            return "unsupported";
+        }
+        return "invalid";
     }
 
     /**
-     * Verifica si el token ha expirado
+     * Extrae el nombre de usuario del token
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String extractUsername(String token) {
+        return validateAndParse(token).getSubject();
     }
 
     /**
-     * Extrae la fecha de expiración del token
+     * Extrae un claim específico del token
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(validateAndParse(token).getClaims());
     }
 
     /**
-     * Obtiene la clave de firma
+     * Verifica si el token es válido para el usuario
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        final VerifiedClaims claims;
+        try {
+            claims = validateAndParse(token);
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
+        return userDetails.getUsername().equals(claims.getSubject()) && !claims.isExpired(new Date());
     }
 }
@@ -0,0 +1,125 @@
+package com.example.jwtapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado y dedicado para las operaciones de hashing de contraseñas (BCrypt).
+ * Evita que una ráfaga de logins ocupe todos los hilos de Tomcat: cuando la cola
+ * está llena la tarea se rechaza de inmediato con HashingCapacityExceededException.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    static final String METRIC_NAME = "auth.hashing";
+
+    @Value("${auth.hashing.pool-size:4}")
+    private int poolSize;
+
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.hashing.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor threadPool;
+
+    /**
+     * Executor instrumentado: publica profundidad de cola (executor.queued),
+     * tiempo de espera en cola (executor.idle) y tiempo de ejecución (executor)
+     */
+    private ExecutorService executor;
+
+    private Counter rejectedCounter;
+
+    private Counter timeoutCounter;
+
+    /**
+     * Crea el pool y registra sus métricas
+     */
+    @PostConstruct
+    public void init() {
+        this.threadPool = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, METRIC_NAME);
+        this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+                .description("Tareas de hashing rechazadas por cola llena")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder(METRIC_NAME + ".timeouts")
+                .description("Tareas de hashing que superaron el tiempo máximo de espera")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la tarea en el pool de hashing y espera su resultado.
+     * Las excepciones de la tarea se propagan sin cambios.
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new HashingCapacityExceededException("Servicio de autenticación saturado, reintente más tarde", e);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            throw new HashingCapacityExceededException("Tiempo de espera agotado en el servicio de autenticación", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingCapacityExceededException("Autenticación interrumpida", e);
+        }
+    }
+
+    /**
+     * Número de tareas esperando en la cola
+     */
+    public int getQueueDepth() {
+        return threadPool.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
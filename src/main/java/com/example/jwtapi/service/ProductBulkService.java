@@ -0,0 +1,189 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.dto.BulkOperationResponse;
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Altas, modificaciones y bajas masivas de productos.
+ * La entrada se procesa por bloques de CHUNK_SIZE: cada bloque se guarda en su propia
+ * transacción (los INSERT/UPDATE se envían en lotes JDBC) y se limpia el contexto de
+ * persistencia, por lo que la memoria usada no depende del tamaño de la importación.
+ * Si un bloque falla, los bloques anteriores ya quedaron guardados.
+ */
+@Service
+public class ProductBulkService {
+
+    /**
+     * Productos por transacción; múltiplo de hibernate.jdbc.batch_size
+     */
+    static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Crea la plantilla de transacciones usada para cada bloque
+     */
+    @PostConstruct
+    public void init() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Crear productos en bloque
+     * Devuelve el número de productos creados y sus IDs
+     */
+    public BulkOperationResponse createAll(Iterator<Product> products) {
+        List<Long> ids = new ArrayList<>();
+        int position = 0;
+        while (products.hasNext()) {
+            List<Product> chunk = nextChunk(products, position, ids.size());
+            position += chunk.size();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Product product : chunk) {
+                    product.setId(null);
+                    product.setVersion(null);
+                    entityManager.persist(product);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+
+            // Los productos nuevos no se cachean: una importación grande desalojaría los productos más leídos
+            for (Product product : chunk) {
+                ids.add(product.getId());
+                productSearchIndex.index(product);
+            }
+        }
+        return new BulkOperationResponse(ids.size(), ids, List.of());
+    }
+
+    /**
+     * Actualizar productos en bloque (cada producto debe incluir su ID)
+     * Si un producto trae versión y no coincide con la actual se lanza un conflicto de bloqueo optimista.
+     * Devuelve el número de productos actualizados y los IDs que no existen.
+     */
+    public BulkOperationResponse updateAll(Iterator<Product> products) {
+        List<Long> missingIds = new ArrayList<>();
+        int updated = 0;
+        int position = 0;
+        while (products.hasNext()) {
+            List<Product> chunk = nextChunk(products, position, updated);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i).getId() == null) {
+                    throw new IllegalArgumentException("Falta el ID del producto en la posición " + (position + i)
+                            + "; se procesaron " + updated + " productos antes del error");
+                }
+            }
+            position += chunk.size();
+
+            List<Product> saved = transactionTemplate.execute(status -> {
+                Map<Long, Product> existing = productRepository.findAllById(
+                                chunk.stream().map(Product::getId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+                List<Product> changed = new ArrayList<>();
+                for (Product details : chunk) {
+                    Product product = existing.get(details.getId());
+                    if (product == null) {
+                        missingIds.add(details.getId());
+                        continue;
+                    }
+                    if (details.getVersion() != null && !details.getVersion().equals(product.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Product.class, details.getId());
+                    }
+                    product.setName(details.getName());
+                    product.setDescription(details.getDescription());
+                    product.setPrice(details.getPrice());
+                    product.setStock(details.getStock());
+                    product.preUpdate();
+                    changed.add(product);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return changed;
+            });
+
+            for (Product product : saved) {
+                productCache.invalidate(product.getId());
+                productSearchIndex.index(product);
+            }
+            updated += saved.size();
+        }
+        return new BulkOperationResponse(updated, List.of(), missingIds);
+    }
+
+    /**
+     * Eliminar productos en bloque por ID
+     * Devuelve el número de productos eliminados
+     */
+    public BulkOperationResponse deleteAll(List<Long> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            deleted += productRepository.deleteAllByIdIn(chunk);
+            for (Long id : chunk) {
+                productCache.invalidate(id);
+                productSearchIndex.remove(id);
+            }
+        }
+        return new BulkOperationResponse(deleted, List.of(), List.of());
+    }
+
+    /**
+     * Lee y valida el siguiente bloque de productos
+     */
+    private List<Product> nextChunk(Iterator<Product> products, int position, int alreadySaved) {
+        List<Product> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (products.hasNext() && chunk.size() < CHUNK_SIZE) {
+            Product product = products.next();
+            Set<ConstraintViolation<Product>> violations = validator.validate(product);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                throw new IllegalArgumentException("Producto inválido en la posición " + (position + chunk.size())
+                        + ": " + message + "; se procesaron " + alreadySaved + " productos antes del error");
+            }
+            chunk.add(product);
+        }
+        return chunk;
+    }
+}
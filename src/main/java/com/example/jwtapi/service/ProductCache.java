@@ -0,0 +1,82 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caché de productos por ID, acotada por tamaño y con TTL.
+ * Guarda y devuelve copias: ningún llamador recibe una instancia compartida
+ * que pueda modificar el contenido de la caché.
+ * Las métricas se publican como cache.gets, cache.puts, cache.evictions con cache=products.
+ */
+@Component
+public class ProductCache {
+
+    static final String CACHE_NAME = "products";
+
+    @Value("${product.cache.max-size:10000}")
+    private long maximumSize;
+
+    @Value("${product.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Long, Product> cache;
+
+    /**
+     * Crea la caché y registra sus métricas
+     */
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Devuelve una copia del producto cacheado o lo carga con la función indicada.
+     * Los productos inexistentes no se cachean.
+     */
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        Product cached = cache.get(id, key -> loader.apply(key).map(Product::new).orElse(null));
+        return Optional.ofNullable(cached).map(Product::new);
+    }
+
+    /**
+     * Elimina un producto de la caché
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Contadores de aciertos, fallos y desalojos
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Número aproximado de entradas en la caché
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.jwtapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado para las lecturas asíncronas de productos (/api/products/async).
+ * Las consultas JDBC siguen siendo bloqueantes, pero bloquean un hilo de este pool en lugar de un hilo
+ * de Tomcat. Por defecto tiene tantos hilos como conexiones el pool de base de datos, que es el límite
+ * real de consultas simultáneas; el resto espera en una cola acotada y, si está llena, se rechaza.
+ */
+@Component
+public class ProductQueryExecutor {
+
+    static final String METRIC_NAME = "product.queries";
+
+    @Value("${product.async.pool-size:${app.datasource.pool.maximum-pool-size:10}}")
+    private int poolSize;
+
+    @Value("${product.async.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor threadPool;
+
+    /**
+     * Executor instrumentado: publica profundidad de cola (executor.queued),
+     * tiempo de espera en cola (executor.idle) y tiempo de ejecución (executor)
+     */
+    private ExecutorService executor;
+
+    private Counter rejectedCounter;
+
+    /**
+     * Crea el pool y registra sus métricas
+     */
+    @PostConstruct
+    public void init() {
+        this.threadPool = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("product-query-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, METRIC_NAME);
+        this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+                .description("Consultas de productos rechazadas por cola llena")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la consulta en el pool y devuelve su resultado futuro sin bloquear al llamador.
+     * Si la cola está llena el futuro falla con QueryCapacityExceededException.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(
+                    new QueryCapacityExceededException("Servicio de productos saturado, reintente más tarde", e));
+        }
+    }
+
+    /**
+     * Número de consultas esperando en la cola
+     */
+    public int getQueueDepth() {
+        return threadPool.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
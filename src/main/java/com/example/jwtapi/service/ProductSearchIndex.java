@@ -0,0 +1,324 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas sobre el nombre y la descripción de los productos.
+ * Sustituye las búsquedas LIKE '%texto%', que obligan a recorrer toda la tabla,
+ * por búsquedas en el índice con ranking por relevancia. Las búsquedas no distinguen
+ * mayúsculas ni acentos.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    /**
+     * Longitud de los n-gramas indexados; términos más cortos no pueden resolverse con el índice
+     */
+    static final int GRAM_SIZE = 3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final double NAME_MATCH_SCORE = 3.0;
+    private static final double NAME_PREFIX_BONUS = 2.0;
+    private static final double DESCRIPTION_MATCH_SCORE = 1.0;
+
+    /**
+     * Campos sobre los que se busca
+     */
+    public enum Scope {
+        NAME,
+        NAME_AND_DESCRIPTION
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+
+    /**
+     * IDs eliminados: un index() que llegue después del borrado no debe volver a añadirlos
+     */
+    private final Set<Long> removedIds = new HashSet<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    /**
+     * Construye el índice completo al arrancar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            removedIds.clear();
+            try (Stream<Product> products = productRepository.streamAllOrderedById()) {
+                Iterator<Product> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    Product product = iterator.next();
+                    addDocument(product);
+                    entityManager.detach(product);
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de productos construido: {} productos en {} ms",
+                documents.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Indica si el índice está construido
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indica si la consulta puede resolverse con el índice:
+     * debe estar construido y la consulta tener al menos un término de 3 caracteres
+     */
+    public boolean canServe(String query) {
+        return ready && terms(query).stream().anyMatch(term -> term.length() >= GRAM_SIZE);
+    }
+
+    /**
+     * Indexa (o reindexa) un producto.
+     * Dos actualizaciones concurrentes pueden llegar aquí en orden distinto al de su commit,
+     * así que se ignora una versión anterior a la indexada y cualquier producto ya eliminado.
+     */
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (removedIds.contains(product.getId()) || isOlder(product, documents.get(product.getId()))) {
+                return;
+            }
+            removeDocument(product.getId());
+            addDocument(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un producto del índice y evita que vuelva a indexarse
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            removedIds.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de productos indexados
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca productos cuyo texto contenga todos los términos de la consulta.
+     * Devuelve los IDs ordenados por relevancia (y por ID en caso de empate).
+     */
+    public List<Long> search(String query, Scope scope) {
+        List<String> terms = terms(query);
+        List<String> indexableTerms = terms.stream()
+                .filter(term -> term.length() >= GRAM_SIZE)
+                .toList();
+        if (indexableTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = candidates(indexableTerms);
+            List<ScoredId> hits = new ArrayList<>();
+            for (Long id : candidates) {
+                IndexedProduct document = documents.get(id);
+                double score = score(document, terms, scope);
+                if (score > 0) {
+                    hits.add(new ScoredId(id, score));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(ScoredId::score).reversed()
+                    .thenComparing(ScoredId::id));
+            return hits.stream().map(ScoredId::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza el texto: minúsculas y sin acentos
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> terms(String query) {
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(WHITESPACE.split(normalized));
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * Intersección de las listas de IDs de todos los trigramas de la consulta,
+     * empezando por la más corta
+     */
+    private Set<Long> candidates(List<String> terms) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : grams(term)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptySet();
+                }
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Verifica que cada término aparezca realmente en el texto y calcula la relevancia.
+     * Devuelve 0 si algún término no aparece.
+     */
+    private static double score(IndexedProduct document, List<String> terms, Scope scope) {
+        double score = 0;
+        for (String term : terms) {
+            boolean inName = document.name().contains(term);
+            boolean inDescription = scope == Scope.NAME_AND_DESCRIPTION && document.description().contains(term);
+            if (!inName && !inDescription) {
+                return 0;
+            }
+            if (inName) {
+                score += NAME_MATCH_SCORE;
+                if (document.name().startsWith(term)) {
+                    score += NAME_PREFIX_BONUS;
+                }
+            }
+            if (inDescription) {
+                score += DESCRIPTION_MATCH_SCORE;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Compara con la versión indexada según @Version; sin versión se acepta el producto
+     */
+    private static boolean isOlder(Product product, IndexedProduct indexed) {
+        if (indexed == null || indexed.version() == null || product.getVersion() == null) {
+            return false;
+        }
+        return product.getVersion() < indexed.version();
+    }
+
+    private void addDocument(Product product) {
+        IndexedProduct document = new IndexedProduct(normalize(product.getName()), normalize(product.getDescription()),
+                product.getVersion());
+        documents.put(product.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(product.getId());
+        }
+    }
+
+    private void removeDocument(Long id) {
+        IndexedProduct previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : previous.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private record IndexedProduct(String name, String description, Long version) {
+
+        Set<String> grams() {
+            Set<String> grams = ProductSearchIndex.grams(name);
+            grams.addAll(ProductSearchIndex.grams(description));
+            return grams;
+        }
+    }
+
+    private record ScoredId(Long id, double score) {
+    }
+}
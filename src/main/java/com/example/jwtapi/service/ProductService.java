@@ -1,56 +1,184 @@
 package com.example.jwtapi.service;
 
+import com.example.jwtapi.dto.PageResponse;
+import com.example.jwtapi.dto.ProductSummary;
+import com.example.jwtapi.dto.ProductView;
 import com.example.jwtapi.entity.Product;
 import com.example.jwtapi.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
+/**
+ * Las consultas se ejecutan en transacciones de solo lectura: Hibernate usa FlushMode.MANUAL
+ * y no guarda snapshots para dirty checking, y con app.datasource.read.url van al pool de lectura.
+ */
 @Service
 public class ProductService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    /**
+     * Campos por los que se permite ordenar
+     */
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "price", "createdAt");
+    
+    @Value("${product.update.max-attempts:3}")
+    private int maxUpdateAttempts;
+    
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private ProductCache productCache;
+    
+    /**
+     * Obtener productos según los parámetros de GET /api/products (y su variante asíncrona):
+     * con after, la página siguiente al cursor; si no, la página pedida (la primera por defecto)
+     * de DEFAULT_PAGE_SIZE productos. Con la vista SUMMARY se usa la proyección ligera.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<?> listProducts(Integer page, Integer size, String sort, Long after, ProductView view) {
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        boolean summary = view == ProductView.SUMMARY;
+        if (after != null) {
+            return summary ? getProductSummariesAfter(after, pageSize) : getProductsAfter(after, pageSize);
+        }
+        int pageNumber = page != null ? page : 0;
+        return summary ? getProductSummariesPage(pageNumber, pageSize, sort) : getProductsPage(pageNumber, pageSize, sort);
+    }
+    
+    /**
+     * Obtener una página de productos
+     * El orden siempre termina en id para que las páginas sean estables
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Product> getProductsPage(int page, int size, String sort) {
+        int pageSize = clampPageSize(size);
+        Slice<Product> slice = productRepository.findAllBy(PageRequest.of(page, pageSize, parseSort(sort)));
+        return new PageResponse<>(slice.getContent(), page, pageSize, slice.hasNext(), null);
+    }
+    
+    /**
+     * Obtener la siguiente página de productos a partir de un cursor (ID)
+     * Usa el índice de la clave primaria en lugar de OFFSET
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Product> getProductsAfter(Long afterId, int size) {
+        int pageSize = clampPageSize(size);
+        Slice<Product> slice = productRepository.findByIdGreaterThan(afterId,
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+        return keysetPage(slice, pageSize, Product::getId);
+    }
+    
+    /**
+     * Obtener una página de productos como proyección (id, name, price, stock)
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductSummary> getProductSummariesPage(int page, int size, String sort) {
+        int pageSize = clampPageSize(size);
+        Slice<ProductSummary> slice = productRepository.findSummariesBy(PageRequest.of(page, pageSize, parseSort(sort)));
+        return new PageResponse<>(slice.getContent(), page, pageSize, slice.hasNext(), null);
+    }
+    
     /**
-     * Obtener todos los productos
+     * Obtener la siguiente página de productos como proyección a partir de un cursor (ID)
      */
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public PageResponse<ProductSummary> getProductSummariesAfter(Long afterId, int size) {
+        int pageSize = clampPageSize(size);
+        Slice<ProductSummary> slice = productRepository.findSummariesByIdGreaterThan(afterId,
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+        return keysetPage(slice, pageSize, ProductSummary::id);
     }
     
     /**
      * Obtener un producto por ID
+     * Se sirve desde la caché; en caso de fallo se lee de la base de datos.
+     * Sin @Transactional: abrir la transacción toma una conexión del pool aunque haya acierto de caché;
+     * findById ya abre su propia transacción de solo lectura al cargar
      */
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCache.get(id, productRepository::findById);
     }
     
     /**
      * Crear un nuevo producto
+     * La caché se invalida en lugar de escribirse: la primera lectura carga la fila
      */
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        product.setVersion(null); // La versión la asigna JPA al insertar
+        Product savedProduct = productRepository.save(product);
+        productCache.invalidate(savedProduct.getId());
+        productSearchIndex.index(savedProduct);
+        return savedProduct;
     }
     
     /**
      * Actualizar un producto existente
+     * Si la petición trae versión y no coincide con la actual, falla de inmediato (409).
+     * Sin versión, la actualización es idempotente (reemplazo completo) y ante un conflicto
+     * se reintenta releyendo el producto, hasta maxUpdateAttempts intentos.
      */
     public Product updateProduct(Long id, Product productDetails) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return applyUpdate(id, productDetails);
+            } catch (OptimisticLockingFailureException e) {
+                if (productDetails.getVersion() != null || attempt >= maxUpdateAttempts) {
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+    
+    /**
+     * Lee el producto, aplica los cambios y lo guarda comprobando la versión
+     * Tras el commit se invalida la caché en lugar de guardar el producto: una escritura
+     * concurrente (cambio de stock o borrado) puede haber invalidado ya la entrada, y guardar
+     * aquí la versión propia la reemplazaría por una copia obsoleta hasta que expire el TTL.
+     */
+    private Product applyUpdate(Long id, Product productDetails) {
         Optional<Product> optionalProduct = productRepository.findById(id);
         
         if (optionalProduct.isPresent()) {
             Product product = optionalProduct.get();
+            if (productDetails.getVersion() != null && !productDetails.getVersion().equals(product.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, id);
+            }
             product.setName(productDetails.getName());
             product.setDescription(productDetails.getDescription());
             product.setPrice(productDetails.getPrice());
             product.setStock(productDetails.getStock());
             product.preUpdate(); // Actualizar timestamp
             
-            return productRepository.save(product);
+            Product savedProduct = productRepository.save(product);
+            productCache.invalidate(id);
+            productSearchIndex.index(savedProduct);
+            return savedProduct;
         }
         
         return null;
@@ -58,39 +186,92 @@ public class ProductService {
     
     /**
      * Eliminar un producto
+     * Una única sentencia DELETE; el número de filas afectadas indica si existía
      */
     public boolean deleteProduct(Long id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
-            return true;
+        if (productRepository.deleteProductById(id) == 0) {
+            return false;
         }
-        return false;
+        productCache.invalidate(id);
+        productSearchIndex.remove(id);
+        return true;
     }
     
     /**
      * Buscar productos por nombre
      */
+    @Transactional(readOnly = true)
     public List<Product> searchProductsByName(String name) {
         return productRepository.findByNameContainingIgnoreCase(name);
     }
     
+    /**
+     * Buscar productos por nombre como proyección (id, name, price, stock)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProductSummariesByName(String name) {
+        return productRepository.findSummariesByNameContaining(name);
+    }
+    
+    /**
+     * Búsqueda de texto en nombre y descripción, ordenada por relevancia y paginada
+     * Usa el índice de búsqueda si la consulta tiene algún término de 3 o más caracteres;
+     * si no, busca la consulta como subcadena en nombre o descripción
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Product> searchProducts(String query, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("El número de página no puede ser negativo");
+        }
+        int pageSize = clampPageSize(size);
+        if (!productSearchIndex.canServe(query)) {
+            Slice<Product> slice = productRepository.findByNameOrDescriptionContaining(query,
+                    PageRequest.of(page, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+            return new PageResponse<>(slice.getContent(), page, pageSize, slice.hasNext(), null);
+        }
+        
+        List<Long> ids = productSearchIndex.search(query, ProductSearchIndex.Scope.NAME_AND_DESCRIPTION);
+        int from = (int) Math.min((long) page * pageSize, ids.size());
+        int to = Math.min(from + pageSize, ids.size());
+        return new PageResponse<>(findAllInOrder(ids.subList(from, to)), page, pageSize, to < ids.size(), null);
+    }
+    
     /**
      * Buscar productos por rango de precio
      */
+    @Transactional(readOnly = true)
     public List<Product> searchProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         return productRepository.findByPriceBetween(minPrice, maxPrice);
     }
     
+    /**
+     * Buscar productos por rango de precio como proyección (id, name, price, stock)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProductSummariesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return productRepository.findSummariesByPriceBetween(minPrice, maxPrice);
+    }
+    
     /**
      * Buscar productos con stock disponible
      */
+    @Transactional(readOnly = true)
     public List<Product> getProductsWithStock(Integer minStock) {
         return productRepository.findByStockGreaterThan(minStock);
     }
     
+    /**
+     * Buscar productos con stock disponible como proyección (id, name, price, stock)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductSummariesWithStock(Integer minStock) {
+        return productRepository.findSummariesByStockGreaterThan(minStock);
+    }
+    
     /**
      * Buscar productos por nombre y precio máximo
      */
+    @Transactional(readOnly = true)
     public List<Product> searchProductsByNameAndMaxPrice(String name, BigDecimal maxPrice) {
         return productRepository.findByNameContainingAndPriceLessThanEqual(name, maxPrice);
     }
@@ -98,24 +279,110 @@ public class ProductService {
     /**
      * Contar productos con stock disponible
      */
+    @Transactional(readOnly = true)
     public long countProductsWithStock(Integer minStock) {
         return productRepository.countByStockGreaterThan(minStock);
     }
     
     /**
      * Actualizar stock de un producto
+     * El stock se fija con una única sentencia UPDATE (sin leer la entidad antes),
+     * por lo que no hay actualizaciones perdidas; después se lee el producto para la respuesta
      */
     public Product updateStock(Long id, Integer newStock) {
-        Optional<Product> optionalProduct = productRepository.findById(id);
-        
-        if (optionalProduct.isPresent()) {
-            Product product = optionalProduct.get();
-            product.setStock(newStock);
-            product.preUpdate();
-            
-            return productRepository.save(product);
+        int updated = productRepository.updateStock(id, newStock, LocalDateTime.now());
+        if (updated == 0) {
+            return null;
         }
-        
-        return null;
+        productCache.invalidate(id);
+        return getProductById(id).orElse(null);
+    }
+    
+    /**
+     * Incrementar el stock de un producto de forma atómica
+     * Devuelve false si el producto no existe
+     */
+    public boolean incrementStock(Long id, int amount) {
+        requirePositive(amount);
+        int updated = productRepository.incrementStock(id, amount, LocalDateTime.now());
+        productCache.invalidate(id);
+        return updated > 0;
+    }
+    
+    /**
+     * Reservar unidades de un producto: decrementa el stock solo si hay suficiente
+     * Devuelve false si el producto no existe y lanza InsufficientStockException si no hay stock
+     */
+    public boolean reserveStock(Long id, int amount) {
+        requirePositive(amount);
+        int updated = productRepository.decrementStockIfAvailable(id, amount, LocalDateTime.now());
+        if (updated > 0) {
+            productCache.invalidate(id);
+            return true;
+        }
+        if (!productRepository.existsById(id)) {
+            return false;
+        }
+        throw new InsufficientStockException("Stock insuficiente para el producto " + id);
+    }
+    
+    /**
+     * Carga los productos de la lista de IDs respetando su orden
+     */
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return productRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(product -> rank.getOrDefault(product.getId(), Integer.MAX_VALUE)))
+                .toList();
+    }
+    
+    /**
+     * Construye la respuesta keyset: el cursor siguiente es el ID del último elemento
+     */
+    private <T> PageResponse<T> keysetPage(Slice<T> slice, int pageSize, Function<T, Long> idOf) {
+        List<T> content = slice.getContent();
+        Long nextCursor = slice.hasNext() && !content.isEmpty() ? idOf.apply(content.get(content.size() - 1)) : null;
+        return new PageResponse<>(content, null, pageSize, slice.hasNext(), nextCursor);
+    }
+    
+    /**
+     * Valida que la cantidad sea mayor a 0
+     */
+    private void requirePositive(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser mayor a 0");
+        }
+    }
+    
+    /**
+     * Limita el tamaño de página al rango permitido
+     */
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * Convierte "campo[,asc|desc]" en un Sort, añadiendo id como desempate
+     */
+    private Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.ASC, "id");
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Campo de ordenamiento no permitido: " + field);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+        Sort result = Sort.by(direction, field);
+        return "id".equals(field) ? result : result.and(Sort.by(direction, "id"));
     }
 }
@@ -0,0 +1,12 @@
+package com.example.jwtapi.service;
+
+/**
+ * Se lanza cuando el pool de consultas asíncronas de productos está saturado
+ * y la petición debe rechazarse de inmediato.
+ */
+public class QueryCapacityExceededException extends RuntimeException {
+
+    public QueryCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
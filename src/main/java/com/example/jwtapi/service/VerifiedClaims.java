@@ -0,0 +1,49 @@
+package com.example.jwtapi.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims de un token JWT cuya firma ya fue verificada.
+ * Es inmutable, por lo que puede reutilizarse sin volver a parsear el token.
+ */
+public final class VerifiedClaims {
+
+    private final Claims claims;
+
+    public VerifiedClaims(Claims claims) {
+        this.claims = claims;
+    }
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * Obtiene un claim personalizado con el tipo indicado
+     */
+    public <T> T get(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+
+    /**
+     * Verifica si el token ha expirado en el instante indicado
+     */
+    public boolean isExpired(Date now) {
+        Date expiration = getExpiration();
+        return expiration != null && expiration.before(now);
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.jwtapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de tokens ya verificados.
+ * La clave es el hash SHA-256 del token, y cada entrada expira en el "exp" del propio token
+ * o se desaloja por tamaño cuando la caché está llena.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<ByteBuffer, VerifiedClaims> cache;
+
+    public VerifiedTokenCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Devuelve los claims cacheados del token o los verifica con la función indicada.
+     * Si la verificación falla la excepción se propaga y no se cachea nada.
+     */
+    public VerifiedClaims get(String token, Function<String, VerifiedClaims> verifier) {
+        return cache.get(hash(token), key -> verifier.apply(token));
+    }
+
+    /**
+     * Elimina un token de la caché
+     */
+    public void invalidate(String token) {
+        cache.invalidate(hash(token));
+    }
+
+    /**
+     * Publica aciertos, fallos y desalojos como métricas cache.* con la etiqueta cache=nombre
+     */
+    public void monitor(MeterRegistry meterRegistry, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Contadores de aciertos, fallos y desalojos
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Número aproximado de entradas en la caché
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Ejecuta el mantenimiento pendiente (desalojos por tamaño o expiración)
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Calcula la vida de cada entrada a partir de la expiración del token
+     */
+    private static final class TokenExpiry implements Expiry<ByteBuffer, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedClaims value, long currentTime) {
+            Date expiration = value.getExpiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Catálogo de productos
+-- Los IDs salen de una secuencia con incremento 50 (allocationSize del optimizador pooled de Hibernate)
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE products (
+    id          BIGINT         NOT NULL,
+    name        VARCHAR(100)   NOT NULL,
+    name_lower  VARCHAR(100)   GENERATED ALWAYS AS (LOWER(name)) STORED,
+    description VARCHAR(500),
+    price       NUMERIC(10, 2) NOT NULL,
+    stock       INTEGER        NOT NULL,
+    version     BIGINT         NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_products PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_stock ON products (stock);
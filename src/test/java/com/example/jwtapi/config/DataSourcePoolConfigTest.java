@@ -0,0 +1,142 @@
+package com.example.jwtapi.config;
+
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DataSourcePoolConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourcePoolProperties poolProperties;
+
+    @Autowired
+    private DataSourcePoolConfig dataSourcePoolConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void dataSource_IsConfiguredFromPoolProperties() {
+        // Act
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+
+        // Assert
+        assertEquals(poolProperties.getMaximumPoolSize(), hikari.getMaximumPoolSize());
+        assertEquals(poolProperties.getConnectionTimeout().toMillis(), hikari.getConnectionTimeout());
+        assertEquals(poolProperties.getLeakDetectionThreshold().toMillis(), hikari.getLeakDetectionThreshold());
+    }
+
+    @Test
+    void dataSource_AppliesPreparedStatementCacheToH2() throws Exception {
+        // Act
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_CACHE_SIZE'")) {
+
+            // Assert
+            assertTrue(resultSet.next());
+            assertEquals(String.valueOf(poolProperties.getPreparedStatementCacheSize()), resultSet.getString(1));
+        }
+    }
+
+    @Test
+    void getProductById_CacheHit_DoesNotAcquireConnection() {
+        // Arrange
+        Product product = productService.createProduct(
+                new Product("Laptop", "Gaming laptop", new BigDecimal("999.99"), 10));
+        productService.getProductById(product.getId());
+        long acquiredBefore = meterRegistry.get("hikaricp.connections.acquire").timer().count();
+
+        // Act
+        Optional<Product> result = productService.getProductById(product.getId());
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(acquiredBefore, meterRegistry.get("hikaricp.connections.acquire").timer().count());
+        productService.deleteProduct(product.getId());
+    }
+
+    @Test
+    void poolMetrics_PublishPoolGaugesAndAcquireTimer() throws Exception {
+        // Arrange
+        try (Connection connection = dataSource.getConnection()) {
+            assertNotNull(connection);
+        }
+
+        // Act
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+
+        // Assert
+        assertTrue(acquire.count() > 0);
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.idle").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").gauge());
+        assertTrue(acquire.max(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void checkPoolSizing_TooManyThreadsPerConnection_ReturnsWarning() {
+        // Arrange
+        DataSourcePoolConfig config = configWith(10, 200);
+
+        // Act
+        Optional<String> warning = config.checkPoolSizing();
+
+        // Assert
+        assertTrue(warning.isPresent());
+        assertTrue(warning.get().contains("200"));
+    }
+
+    @Test
+    void checkPoolSizing_PoolLargerThanThreads_ReturnsWarning() {
+        // Arrange
+        DataSourcePoolConfig config = configWith(50, 20);
+
+        // Act & Assert
+        assertTrue(config.checkPoolSizing().isPresent());
+    }
+
+    @Test
+    void checkPoolSizing_ConfiguredValues_AreBalanced() {
+        // Act & Assert
+        assertTrue(dataSourcePoolConfig.checkPoolSizing().isEmpty());
+    }
+
+    private DataSourcePoolConfig configWith(int poolSize, int tomcatThreads) {
+        DataSourcePoolProperties properties = new DataSourcePoolProperties();
+        properties.setMaximumPoolSize(poolSize);
+        properties.setConnectionTimeout(Duration.ofSeconds(5));
+        DataSourcePoolConfig config = new DataSourcePoolConfig();
+        ReflectionTestUtils.setField(config, "poolProperties", properties);
+        ReflectionTestUtils.setField(config, "tomcatMaxThreads", tomcatThreads);
+        ReflectionTestUtils.setField(config, "virtualThreadsConfig", new VirtualThreadsConfig());
+        return config;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.jwtapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La "réplica" apunta a la misma base H2 en memoria, con su propio pool
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingdb",
+        "app.datasource.read.url=jdbc:h2:mem:routingdb"
+})
+@ActiveProfiles("test")
+class DataSourceRoutingConfigTest {
+
+    @Autowired
+    @Qualifier("writeDataSource")
+    private HikariDataSource writeDataSource;
+
+    @Autowired
+    @Qualifier("readDataSource")
+    private HikariDataSource readDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReadPoolWithManualFlush() {
+        // Arrange
+        transactionTemplate.setReadOnly(true);
+
+        // Act & Assert
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("SELECT COUNT(*) FROM products").getSingleResult();
+
+            assertEquals(1, readDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, writeDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(FlushMode.MANUAL, entityManager.unwrap(Session.class).getHibernateFlushMode());
+        });
+    }
+
+    @Test
+    void readWriteTransaction_UsesWritePool() {
+        // Act & Assert
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("SELECT COUNT(*) FROM products").getSingleResult();
+
+            assertEquals(1, writeDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, readDataSource.getHikariPoolMXBean().getActiveConnections());
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.jwtapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HikariPoolConfigurerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(PoolConfiguration.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:hikari-configurer",
+                    "app.datasource.pool.maximum-pool-size=12",
+                    "app.datasource.pool.connection-timeout=5s",
+                    "app.datasource.pool.prepared-statement-cache-size=64");
+
+    @Test
+    void apply_WithoutHikariProperties_UsesPoolProperties() {
+        contextRunner.run(context -> {
+            // Act
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+
+            // Assert
+            assertEquals(12, dataSource.getMaximumPoolSize());
+            assertEquals(12, dataSource.getMinimumIdle());
+            assertEquals(5000, dataSource.getConnectionTimeout());
+            assertEquals("64", dataSource.getDataSourceProperties().getProperty("QUERY_CACHE_SIZE"));
+        });
+    }
+
+    @Test
+    void apply_ExplicitHikariProperties_TakePrecedence() {
+        contextRunner
+                .withPropertyValues(
+                        "spring.datasource.hikari.maximum-pool-size=3",
+                        "spring.datasource.hikari.data-source-properties.QUERY_CACHE_SIZE=8")
+                .run(context -> {
+                    // Act
+                    HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+
+                    // Assert
+                    assertEquals(3, dataSource.getMaximumPoolSize());
+                    assertEquals("8", dataSource.getDataSourceProperties().getProperty("QUERY_CACHE_SIZE"));
+                    assertEquals(5000, dataSource.getConnectionTimeout());
+                });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(DataSourcePoolProperties.class)
+    static class PoolConfiguration {
+
+        @Bean
+        static HikariPoolConfigurer hikariPoolConfigurer(ObjectProvider<DataSourcePoolProperties> properties) {
+            return new HikariPoolConfigurer(properties);
+        }
+    }
+}
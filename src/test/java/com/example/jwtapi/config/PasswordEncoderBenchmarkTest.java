@@ -0,0 +1,48 @@
+package com.example.jwtapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderBenchmarkTest {
+
+    private PasswordEncoderBenchmark benchmark;
+
+    @BeforeEach
+    void setUp() {
+        benchmark = new PasswordEncoderBenchmark();
+        ReflectionTestUtils.setField(benchmark, "passwordEncoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(benchmark, "passwordAlgorithm", "bcrypt");
+        ReflectionTestUtils.setField(benchmark, "iterations", 3);
+    }
+
+    @Test
+    void measure_ReturnsPositiveMillisPerHash() {
+        // Act
+        double millisPerHash = benchmark.measure();
+
+        // Assert
+        assertTrue(millisPerHash > 0);
+    }
+
+    @Test
+    void onApplicationReady_Disabled_DoesNotFail() {
+        // Arrange
+        ReflectionTestUtils.setField(benchmark, "enabled", false);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> benchmark.onApplicationReady());
+    }
+
+    @Test
+    void onApplicationReady_Enabled_RunsMeasurement() {
+        // Arrange
+        ReflectionTestUtils.setField(benchmark, "enabled", true);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> benchmark.onApplicationReady());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.jwtapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReadOnlyTransaction_RoutesToRead() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.READ, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_NoReadOnlyTransaction_RoutesToWrite() {
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.WRITE, routingDataSource.determineCurrentLookupKey());
+    }
+}
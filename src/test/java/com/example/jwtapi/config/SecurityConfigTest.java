@@ -6,9 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -170,4 +173,53 @@ class SecurityConfigTest {
         assertTrue(passwordEncoder.matches("", encodedEmptyPassword));
         assertFalse(passwordEncoder.matches("nonEmpty", encodedEmptyPassword));
     }
+
+    @Test
+    void passwordEncoder_HigherBcryptStrength_RequestsUpgradeOfWeakerHashes() {
+        // Arrange
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "passwordAlgorithm", "bcrypt");
+        ReflectionTestUtils.setField(config, "bcryptStrength", 6);
+        String weakerHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        // Act
+        PasswordEncoder passwordEncoder = config.passwordEncoder();
+
+        // Assert
+        assertTrue(passwordEncoder.matches("secret", weakerHash));
+        assertTrue(passwordEncoder.upgradeEncoding(weakerHash));
+        assertTrue(passwordEncoder.encode("secret").startsWith("$2a$06$"));
+    }
+
+    @Test
+    void passwordEncoder_Pbkdf2Algorithm_ReturnsDelegatingEncoderThatAcceptsLegacyBcrypt() {
+        // Arrange
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "passwordAlgorithm", "pbkdf2");
+        ReflectionTestUtils.setField(config, "bcryptStrength", 4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        // Act
+        PasswordEncoder passwordEncoder = config.passwordEncoder();
+        String newHash = passwordEncoder.encode("secret");
+
+        // Assert
+        assertTrue(passwordEncoder instanceof DelegatingPasswordEncoder);
+        assertTrue(newHash.startsWith("{pbkdf2}"));
+        assertTrue(passwordEncoder.matches("secret", newHash));
+        assertTrue(passwordEncoder.matches("secret", legacyHash));
+        assertTrue(passwordEncoder.upgradeEncoding(legacyHash));
+        assertFalse(passwordEncoder.upgradeEncoding(newHash));
+    }
+
+    @Test
+    void passwordEncoder_UnsupportedAlgorithm_ThrowsIllegalStateException() {
+        // Arrange
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "passwordAlgorithm", "md5");
+        ReflectionTestUtils.setField(config, "bcryptStrength", 4);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, config::passwordEncoder);
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.jwtapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsConfigTest {
+
+    private VirtualThreadsConfig virtualThreadsConfig;
+
+    @BeforeEach
+    void setUp() {
+        virtualThreadsConfig = new VirtualThreadsConfig();
+    }
+
+    @Test
+    void checkRuntime_Disabled_NoWarningAndInactive() {
+        // Act
+        Optional<String> warning = virtualThreadsConfig.checkRuntime();
+
+        // Assert
+        assertTrue(warning.isEmpty());
+        assertFalse(virtualThreadsConfig.isActive());
+    }
+
+    @Test
+    void checkRuntime_Enabled_WarnsOnlyBeforeJdk21() {
+        // Arrange
+        ReflectionTestUtils.setField(virtualThreadsConfig, "virtualThreadsEnabled", true);
+
+        // Act
+        Optional<String> warning = virtualThreadsConfig.checkRuntime();
+
+        // Assert
+        assertEquals(!VirtualThreadsConfig.isSupported(), warning.isPresent());
+        assertEquals(VirtualThreadsConfig.isSupported(), virtualThreadsConfig.isActive());
+        warning.ifPresent(message -> assertTrue(message.contains("JDK 21")));
+    }
+}
@@ -3,13 +3,18 @@ package com.example.jwtapi.controller;
 import com.example.jwtapi.dto.JwtResponse;
 import com.example.jwtapi.dto.LoginRequest;
 import com.example.jwtapi.model.User;
+import com.example.jwtapi.config.SecurityConfig;
 import com.example.jwtapi.service.AuthService;
+import com.example.jwtapi.service.CustomUserDetailsService;
+import com.example.jwtapi.service.HashingCapacityExceededException;
+import com.example.jwtapi.service.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -19,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
+@Import(SecurityConfig.class)
 class AuthControllerTest {
 
     @Autowired
@@ -27,6 +33,12 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -222,5 +234,18 @@ class AuthControllerTest {
                 .content("null"))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void authenticateUser_HashingPoolSaturated_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        when(authService.authenticateUser(any(LoginRequest.class)))
+                .thenThrow(new HashingCapacityExceededException("Servicio de autenticación saturado, reintente más tarde"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+}
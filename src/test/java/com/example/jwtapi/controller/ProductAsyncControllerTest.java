@@ -0,0 +1,217 @@
+package com.example.jwtapi.controller;
+
+import com.example.jwtapi.config.SecurityConfig;
+import com.example.jwtapi.dto.PageResponse;
+import com.example.jwtapi.dto.ProductSummary;
+import com.example.jwtapi.dto.ProductView;
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.service.CustomUserDetailsService;
+import com.example.jwtapi.service.JwtService;
+import com.example.jwtapi.service.ProductQueryExecutor;
+import com.example.jwtapi.service.ProductService;
+import com.example.jwtapi.service.QueryCapacityExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ProductAsyncController.class)
+@Import(SecurityConfig.class)
+class ProductAsyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductQueryExecutor productQueryExecutor;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    private Product product1;
+    private Product product2;
+
+    @BeforeEach
+    void setUp() {
+        product1 = new Product("Laptop", "Gaming laptop", new BigDecimal("999.99"), 10);
+        product1.setId(1L);
+        product2 = new Product("Mouse", "Wireless mouse", new BigDecimal("29.99"), 50);
+        product2.setId(2L);
+
+        // El pool de consultas ejecuta la tarea en el mismo hilo durante los tests
+        when(productQueryExecutor.submit(any())).thenAnswer(invocation -> {
+            try {
+                return CompletableFuture.completedFuture(((Supplier<?>) invocation.getArgument(0)).get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    @Test
+    void getAllProducts_NoParams_ReturnsFirstPage() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(product1, product2), 0, ProductService.DEFAULT_PAGE_SIZE, false, null))
+                .when(productService).listProducts(null, null, null, null, ProductView.FULL);
+
+        // Act & Assert
+        performAsync(get("/api/products/async"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Laptop"));
+    }
+
+    @Test
+    void getAllProducts_WithPage_ReturnsPage() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(product2), 1, 5, true, null))
+                .when(productService).listProducts(1, 5, null, null, ProductView.FULL);
+
+        // Act & Assert
+        performAsync(get("/api/products/async").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Mouse"))
+                .andExpect(jsonPath("$.page").value(1));
+    }
+
+    @Test
+    void getAllProducts_InvalidPageSize_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(productService.listProducts(null, 500, null, null, ProductView.FULL))
+                .thenThrow(new IllegalArgumentException("El tamaño de página debe estar entre 1 y 100"));
+
+        // Act & Assert
+        performAsync(get("/api/products/async").param("size", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("El tamaño de página debe estar entre 1 y 100"));
+    }
+
+    @Test
+    void getAllProducts_SummaryView_ReturnsSummaryPage() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50)),
+                null, 1, true, 2L))
+                .when(productService).listProducts(null, 1, null, 1L, ProductView.SUMMARY);
+
+        // Act & Assert
+        performAsync(get("/api/products/async").param("after", "1").param("size", "1").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Mouse"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(2));
+    }
+
+    @Test
+    void getAllProducts_UnknownView_ReturnsBadRequestWithoutQuerying() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/products/async").param("view", "id,name"))
+                .andExpect(status().isBadRequest());
+        verify(productQueryExecutor, never()).submit(any());
+    }
+
+    @Test
+    void getProductById_ExistingProduct_ReturnsProduct() throws Exception {
+        // Arrange
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product1));
+
+        // Act & Assert
+        performAsync(get("/api/products/async/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.name").value("Laptop"));
+    }
+
+    @Test
+    void getProductById_NonExistingProduct_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(productService.getProductById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        performAsync(get("/api/products/async/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchProductsByName_ReturnsMatches() throws Exception {
+        // Arrange
+        when(productService.searchProductsByName("lap")).thenReturn(List.of(product1));
+
+        // Act & Assert
+        performAsync(get("/api/products/async/search").param("name", "lap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Laptop"));
+    }
+
+    @Test
+    void searchProducts_ReturnsRankedPage() throws Exception {
+        // Arrange
+        when(productService.searchProducts("laptop", 0, 20))
+                .thenReturn(new PageResponse<>(List.of(product1), 0, 20, false, null));
+
+        // Act & Assert
+        performAsync(get("/api/products/async/search/text").param("q", "laptop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    void searchProductsByPriceRange_ReturnsMatches() throws Exception {
+        // Arrange
+        when(productService.searchProductsByPriceRange(new BigDecimal("10"), new BigDecimal("100")))
+                .thenReturn(List.of(product2));
+
+        // Act & Assert
+        performAsync(get("/api/products/async/search/price").param("minPrice", "10").param("maxPrice", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Mouse"));
+    }
+
+    @Test
+    void getProductById_QueryPoolSaturated_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        when(productQueryExecutor.submit(any())).thenReturn(CompletableFuture.failedFuture(
+                new QueryCapacityExceededException("Servicio de productos saturado, reintente más tarde",
+                        new RejectedExecutionException())));
+
+        // Act & Assert
+        performAsync(get("/api/products/async/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -1,6 +1,16 @@
 package com.example.jwtapi.controller;
 
+import com.example.jwtapi.config.SecurityConfig;
+import com.example.jwtapi.dto.BulkOperationResponse;
+import com.example.jwtapi.dto.PageResponse;
+import com.example.jwtapi.dto.ProductSummary;
+import com.example.jwtapi.dto.ProductView;
 import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.service.CustomUserDetailsService;
+import com.example.jwtapi.service.JwtService;
+import com.example.jwtapi.service.InsufficientStockException;
+import com.example.jwtapi.service.ProductBulkService;
+import com.example.jwtapi.service.ProductExportService;
 import com.example.jwtapi.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,22 +18,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
+@Import(SecurityConfig.class)
 class ProductControllerTest {
 
     @Autowired
@@ -32,6 +56,18 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private ProductBulkService productBulkService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,30 +88,33 @@ class ProductControllerTest {
     }
 
     @Test
-    void getAllProducts_ReturnsAllProducts() throws Exception {
+    void getAllProducts_NoParams_ReturnsFirstPage() throws Exception {
         // Arrange
-        List<Product> products = Arrays.asList(product1, product2);
-        when(productService.getAllProducts()).thenReturn(products);
+        PageResponse<Product> page = new PageResponse<>(Arrays.asList(product1, product2), 0,
+                ProductService.DEFAULT_PAGE_SIZE, false, null);
+        doReturn(page).when(productService).listProducts(null, null, null, null, ProductView.FULL);
 
         // Act & Assert
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].name").value("Laptop"))
-                .andExpect(jsonPath("$[1].name").value("Mouse"));
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.content[1].name").value("Mouse"))
+                .andExpect(jsonPath("$.size").value(ProductService.DEFAULT_PAGE_SIZE))
+                .andExpect(jsonPath("$.hasNext").value(false));
     }
 
     @Test
-    void getAllProducts_EmptyList_ReturnsEmptyArray() throws Exception {
+    void getAllProducts_NoParamsEmptyCatalog_ReturnsEmptyPage() throws Exception {
         // Arrange
-        when(productService.getAllProducts()).thenReturn(Arrays.asList());
+        doReturn(new PageResponse<>(List.of(), 0, ProductService.DEFAULT_PAGE_SIZE, false, null))
+                .when(productService).listProducts(null, null, null, null, ProductView.FULL);
 
         // Act & Assert
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content.length()").value(0));
     }
 
     @Test
@@ -145,7 +184,7 @@ class ProductControllerTest {
     void updateProduct_ExistingId_ReturnsUpdatedProduct() throws Exception {
         // Arrange
         Product updatedProduct = new Product("Laptop Pro", "Updated gaming laptop", new BigDecimal("1199.99"), 5);
-        when(productService.updateProduct(1L, any(Product.class))).thenReturn(updatedProduct);
+        when(productService.updateProduct(eq(1L), any(Product.class))).thenReturn(updatedProduct);
 
         // Act & Assert
         mockMvc.perform(put("/api/products/1")
@@ -161,7 +200,7 @@ class ProductControllerTest {
     void updateProduct_NonExistingId_ReturnsNotFound() throws Exception {
         // Arrange
         Product updatedProduct = new Product("Laptop Pro", "Updated gaming laptop", new BigDecimal("1199.99"), 5);
-        when(productService.updateProduct(999L, any(Product.class))).thenReturn(null);
+        when(productService.updateProduct(eq(999L), any(Product.class))).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(put("/api/products/999")
@@ -205,6 +244,162 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Laptop"));
     }
 
+    @Test
+    void searchProducts_ValidQuery_ReturnsRankedPage() throws Exception {
+        // Arrange
+        when(productService.searchProducts("lap", 0, 20))
+                .thenReturn(new PageResponse<>(Arrays.asList(product1), 0, 20, false, null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/search/text")
+                .param("q", "lap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void searchProducts_NegativePage_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(productService.searchProducts("lap", -1, 20))
+                .thenThrow(new IllegalArgumentException("El número de página no puede ser negativo"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/search/text")
+                .param("q", "lap")
+                .param("page", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchProductsByName_SummaryView_ReturnsProjection() throws Exception {
+        // Arrange
+        when(productService.searchProductSummariesByName("laptop"))
+                .thenReturn(List.of(new ProductSummary(1L, "Laptop", new BigDecimal("999.99"), 10)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "laptop")
+                .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Laptop"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+        verify(productService, never()).searchProductsByName(any());
+    }
+
+    @Test
+    void searchProductsByName_FullView_ReturnsFullProducts() throws Exception {
+        // Arrange
+        when(productService.searchProductsByName("laptop")).thenReturn(List.of(product1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "laptop")
+                .param("view", "full"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value("Gaming laptop"));
+        verify(productService, never()).searchProductSummariesByName(any());
+    }
+
+    @Test
+    void searchProductsByName_UnknownView_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "laptop")
+                .param("view", "id,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchProductsByPriceRange_SummaryView_ReturnsProjection() throws Exception {
+        // Arrange
+        when(productService.searchProductSummariesByPriceRange(new BigDecimal("20.00"), new BigDecimal("50.00")))
+                .thenReturn(List.of(new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/search/price")
+                .param("minPrice", "20.00")
+                .param("maxPrice", "50.00")
+                .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void getProductsWithStock_SummaryView_ReturnsProjection() throws Exception {
+        // Arrange
+        when(productService.getProductSummariesWithStock(0))
+                .thenReturn(List.of(new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/stock")
+                .param("view", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stock").value(50));
+    }
+
+    @Test
+    void getAllProducts_SummaryViewWithoutPaging_ReturnsFirstSummaryPage() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(new ProductSummary(1L, "Laptop", new BigDecimal("999.99"), 10)),
+                0, ProductService.DEFAULT_PAGE_SIZE, false, null))
+                .when(productService).listProducts(null, null, null, null, ProductView.SUMMARY);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].createdAt").doesNotExist());
+    }
+
+    @Test
+    void getAllProducts_SummaryViewWithPage_ReturnsSummaryPage() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50)),
+                1, 5, true, null))
+                .when(productService).listProducts(1, 5, "price,desc", null, ProductView.SUMMARY);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("page", "1")
+                .param("size", "5")
+                .param("sort", "price,desc")
+                .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Mouse"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void getAllProducts_SummaryViewWithCursor_ReturnsSummaryKeysetPage() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50)),
+                null, 1, true, 2L))
+                .when(productService).listProducts(null, 1, null, 1L, ProductView.SUMMARY);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("after", "1")
+                .param("size", "1")
+                .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(2));
+    }
+
+    @Test
+    void getAllProducts_UnknownViewWithPage_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("page", "0")
+                .param("view", "id,name"))
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).listProducts(any(), any(), any(), any(), any());
+    }
+
     @Test
     void searchProductsByPriceRange_ValidRange_ReturnsMatchingProducts() throws Exception {
         // Arrange
@@ -314,6 +509,167 @@ class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void incrementStock_ExistingId_ReturnsNoContent() throws Exception {
+        // Arrange
+        when(productService.incrementStock(1L, 5)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/1/stock/increment")
+                .param("amount", "5"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void incrementStock_InvalidAmount_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(productService.incrementStock(1L, 0))
+                .thenThrow(new IllegalArgumentException("La cantidad debe ser mayor a 0"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/1/stock/increment")
+                .param("amount", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reserveStock_EnoughStock_ReturnsNoContent() throws Exception {
+        // Arrange
+        when(productService.reserveStock(1L, 2)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                .param("amount", "2"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void reserveStock_NotEnoughStock_ReturnsConflict() throws Exception {
+        // Arrange
+        when(productService.reserveStock(1L, 100))
+                .thenThrow(new InsufficientStockException("Stock insuficiente para el producto 1"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                .param("amount", "100"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void reserveStock_NonExistingId_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(productService.reserveStock(999L, 1)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/999/stock/reserve")
+                .param("amount", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateProduct_OptimisticLockConflict_ReturnsConflict() throws Exception {
+        // Arrange
+        Product updatedProduct = new Product("Laptop Pro", "Updated laptop", new BigDecimal("1299.99"), 5);
+        updatedProduct.setVersion(1L);
+        when(productService.updateProduct(eq(1L), any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedProduct)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void createProducts_JsonArray_CreatesAllProducts() throws Exception {
+        // Arrange
+        List<String> names = new ArrayList<>();
+        when(productBulkService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            products.forEachRemaining(product -> names.add(product.getName()));
+            return new BulkOperationResponse(names.size(), List.of(10L, 11L), List.of());
+        });
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(product1, product2))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.ids[1]").value(11));
+        assertEquals(List.of("Laptop", "Mouse"), names);
+    }
+
+    @Test
+    void createProducts_Ndjson_CreatesAllProducts() throws Exception {
+        // Arrange
+        List<String> names = new ArrayList<>();
+        when(productBulkService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            products.forEachRemaining(product -> names.add(product.getName()));
+            return new BulkOperationResponse(names.size(), List.of(10L, 11L), List.of());
+        });
+        String body = objectMapper.writeValueAsString(product1) + "\n" + objectMapper.writeValueAsString(product2) + "\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.count").value(2));
+        assertEquals(List.of("Laptop", "Mouse"), names);
+    }
+
+    @Test
+    void createProducts_InvalidProduct_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(productBulkService.createAll(any()))
+                .thenThrow(new IllegalArgumentException("Producto inválido en la posición 0"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"name\": \"\"}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createProducts_MalformedJson_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("not json"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateProducts_Conflict_ReturnsConflict() throws Exception {
+        // Arrange
+        when(productBulkService.updateAll(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(product1))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void deleteProducts_ReturnsDeletedCount() throws Exception {
+        // Arrange
+        when(productBulkService.deleteAll(List.of(1L, 2L, 3L)))
+                .thenReturn(new BulkOperationResponse(2, List.of(), List.of()));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2));
+    }
+
     @Test
     void createProduct_InvalidJson_ReturnsBadRequest() throws Exception {
         // Act & Assert
@@ -331,5 +687,87 @@ class ProductControllerTest {
                 .content("invalid json"))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void getAllProducts_WithPageParams_ReturnsPage() throws Exception {
+        // Arrange
+        PageResponse<Product> page = new PageResponse<>(Arrays.asList(product2, product1), 0, 2, true, null);
+        doReturn(page).when(productService).listProducts(0, 2, "price,asc", null, ProductView.FULL);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("page", "0")
+                .param("size", "2")
+                .param("sort", "price,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Mouse"))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void getAllProducts_WithAfterCursor_ReturnsKeysetPage() throws Exception {
+        // Arrange
+        PageResponse<Product> page = new PageResponse<>(List.of(product2), null, 1, true, 2L);
+        doReturn(page).when(productService).listProducts(null, 1, null, 1L, ProductView.FULL);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("after", "1")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void getAllProducts_OnlySizeParam_PassesSizeToService() throws Exception {
+        // Arrange
+        doReturn(new PageResponse<>(List.of(product1), 0, 10, false, null))
+                .when(productService).listProducts(null, 10, null, null, ProductView.FULL);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getAllProducts_InvalidSortField_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(productService.listProducts(any(), any(), eq("description"), any(), any()))
+                .thenThrow(new IllegalArgumentException("Campo de ordenamiento no permitido: description"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                .param("page", "0")
+                .param("sort", "description"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportProducts_StreamsNdjson() throws Exception {
+        // Arrange
+        when(productExportService.exportAsNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Esperar a que termine la escritura en otro hilo antes de despachar la respuesta
+        mvcResult.getAsyncResult();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+}
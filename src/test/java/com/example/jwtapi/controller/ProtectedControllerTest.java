@@ -1,19 +1,26 @@
 package com.example.jwtapi.controller;
 
+import com.example.jwtapi.config.SecurityConfig;
+import com.example.jwtapi.service.CustomUserDetailsService;
 import com.example.jwtapi.service.JwtService;
-import org.junit.jupiter.api.BeforeEach;
+import com.example.jwtapi.service.VerifiedClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProtectedController.class)
+@Import(SecurityConfig.class)
 class ProtectedControllerTest {
 
     @Autowired
@@ -22,15 +29,17 @@ class ProtectedControllerTest {
     @MockBean
     private JwtService jwtService;
 
-    @BeforeEach
-    void setUp() {
-        // Setup common mocks
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    private VerifiedClaims claimsFor(String username) {
+        return new VerifiedClaims(Jwts.claims().subject(username).build());
     }
 
     @Test
     void getProfile_ValidToken_ReturnsProfileMessage() throws Exception {
         // Arrange
-        when(jwtService.extractUsername(anyString())).thenReturn("testuser");
+        when(jwtService.validateAndParse("valid-jwt-token")).thenReturn(claimsFor("testuser"));
 
         // Act & Assert
         mockMvc.perform(get("/api/protected/profile")
@@ -40,102 +49,94 @@ class ProtectedControllerTest {
     }
 
     @Test
-    void getProfile_InvalidToken_ReturnsBadRequest() throws Exception {
+    void getProfile_ValidToken_ParsesTokenOnceAndSkipsUserLookup() throws Exception {
         // Arrange
-        when(jwtService.extractUsername(anyString()))
-                .thenThrow(new RuntimeException("Invalid token"));
+        when(jwtService.validateAndParse("valid-jwt-token")).thenReturn(claimsFor("testuser"));
 
-        // Act & Assert
+        // Act
         mockMvc.perform(get("/api/protected/profile")
-                .header("Authorization", "Bearer invalid-jwt-token"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al acceder al perfil: Invalid token"));
-    }
+                .header("Authorization", "Bearer valid-jwt-token"))
+                .andExpect(status().isOk());
 
-    @Test
-    void getProfile_MissingAuthorizationHeader_ReturnsBadRequest() throws Exception {
-        // Act & Assert
-        mockMvc.perform(get("/api/protected/profile"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al acceder al perfil: Token no encontrado en el header Authorization"));
+        // Assert
+        verify(jwtService, times(1)).validateAndParse("valid-jwt-token");
+        verifyNoInteractions(customUserDetailsService);
     }
 
     @Test
-    void getProfile_InvalidAuthorizationFormat_ReturnsBadRequest() throws Exception {
+    void getProfile_InvalidToken_ReturnsUnauthorized() throws Exception {
+        // Arrange
+        when(jwtService.validateAndParse(anyString()))
+                .thenThrow(new MalformedJwtException("Invalid token"));
+
         // Act & Assert
         mockMvc.perform(get("/api/protected/profile")
-                .header("Authorization", "InvalidFormat token"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al acceder al perfil: Token no encontrado en el header Authorization"));
+                .header("Authorization", "Bearer invalid-jwt-token"))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
-    void getProfile_EmptyAuthorizationHeader_ReturnsBadRequest() throws Exception {
+    void getProfile_ExpiredToken_ReturnsUnauthorized() throws Exception {
+        // Arrange
+        when(jwtService.validateAndParse(anyString()))
+                .thenThrow(new ExpiredJwtException(null, null, "Token expired"));
+
         // Act & Assert
         mockMvc.perform(get("/api/protected/profile")
-                .header("Authorization", ""))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al acceder al perfil: Token no encontrado en el header Authorization"));
+                .header("Authorization", "Bearer expired-jwt-token"))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
-    void getUserInfo_ValidToken_ReturnsUserInfo() throws Exception {
-        // Arrange
-        when(jwtService.extractUsername(anyString())).thenReturn("testuser");
-
+    void getProfile_MissingAuthorizationHeader_ReturnsUnauthorized() throws Exception {
         // Act & Assert
-        mockMvc.perform(get("/api/protected/user-info")
-                .header("Authorization", "Bearer valid-jwt-token"))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Usuario autenticado: testuser"));
+        mockMvc.perform(get("/api/protected/profile"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(jwtService);
     }
 
     @Test
-    void getUserInfo_InvalidToken_ReturnsBadRequest() throws Exception {
-        // Arrange
-        when(jwtService.extractUsername(anyString()))
-                .thenThrow(new RuntimeException("Invalid token"));
-
+    void getProfile_InvalidAuthorizationFormat_ReturnsUnauthorized() throws Exception {
         // Act & Assert
-        mockMvc.perform(get("/api/protected/user-info")
-                .header("Authorization", "Bearer invalid-jwt-token"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al obtener información del usuario: Invalid token"));
+        mockMvc.perform(get("/api/protected/profile")
+                .header("Authorization", "InvalidFormat token"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(jwtService);
     }
 
     @Test
-    void getUserInfo_MissingAuthorizationHeader_ReturnsBadRequest() throws Exception {
+    void getProfile_EmptyAuthorizationHeader_ReturnsUnauthorized() throws Exception {
         // Act & Assert
-        mockMvc.perform(get("/api/protected/user-info"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al obtener información del usuario: Token no encontrado en el header Authorization"));
+        mockMvc.perform(get("/api/protected/profile")
+                .header("Authorization", ""))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
-    void getUserInfo_InvalidAuthorizationFormat_ReturnsBadRequest() throws Exception {
+    void getProfile_AuthorizationHeaderWithSpaces_ReturnsUnauthorized() throws Exception {
         // Act & Assert
-        mockMvc.perform(get("/api/protected/user-info")
-                .header("Authorization", "InvalidFormat token"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al obtener información del usuario: Token no encontrado en el header Authorization"));
+        mockMvc.perform(get("/api/protected/profile")
+                .header("Authorization", "Bearer "))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(jwtService);
     }
 
     @Test
-    void getProfile_DifferentUsername_ReturnsCorrectMessage() throws Exception {
+    void getUserInfo_ValidToken_ReturnsUserInfo() throws Exception {
         // Arrange
-        when(jwtService.extractUsername(anyString())).thenReturn("admin");
+        when(jwtService.validateAndParse("valid-jwt-token")).thenReturn(claimsFor("testuser"));
 
         // Act & Assert
-        mockMvc.perform(get("/api/protected/profile")
+        mockMvc.perform(get("/api/protected/user-info")
                 .header("Authorization", "Bearer valid-jwt-token"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Hola admin, este es un endpoint protegido!"));
+                .andExpect(content().string("Usuario autenticado: testuser"));
     }
 
     @Test
     void getUserInfo_DifferentUsername_ReturnsCorrectMessage() throws Exception {
         // Arrange
-        when(jwtService.extractUsername(anyString())).thenReturn("admin");
+        when(jwtService.validateAndParse("valid-jwt-token")).thenReturn(claimsFor("admin"));
 
         // Act & Assert
         mockMvc.perform(get("/api/protected/user-info")
@@ -145,47 +146,21 @@ class ProtectedControllerTest {
     }
 
     @Test
-    void getProfile_ExpiredToken_ReturnsBadRequest() throws Exception {
+    void getUserInfo_InvalidToken_ReturnsUnauthorized() throws Exception {
         // Arrange
-        when(jwtService.extractUsername(anyString()))
-                .thenThrow(new RuntimeException("Token expired"));
-
-        // Act & Assert
-        mockMvc.perform(get("/api/protected/profile")
-                .header("Authorization", "Bearer expired-jwt-token"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al acceder al perfil: Token expired"));
-    }
-
-    @Test
-    void getUserInfo_ExpiredToken_ReturnsBadRequest() throws Exception {
-        // Arrange
-        when(jwtService.extractUsername(anyString()))
-                .thenThrow(new RuntimeException("Token expired"));
+        when(jwtService.validateAndParse(anyString()))
+                .thenThrow(new MalformedJwtException("Invalid token"));
 
         // Act & Assert
         mockMvc.perform(get("/api/protected/user-info")
-                .header("Authorization", "Bearer expired-jwt-token"))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al obtener información del usuario: Token expired"));
-    }
-
-    @Test
-    void getProfile_AuthorizationHeaderWithSpaces_ReturnsBadRequest() throws Exception {
-        // Act & Assert
-        mockMvc.perform(get("/api/protected/profile")
-                .header("Authorization", "Bearer "))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al acceder al perfil: Token no encontrado en el header Authorization"));
+                .header("Authorization", "Bearer invalid-jwt-token"))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
-    void getUserInfo_AuthorizationHeaderWithSpaces_ReturnsBadRequest() throws Exception {
+    void getUserInfo_MissingAuthorizationHeader_ReturnsUnauthorized() throws Exception {
         // Act & Assert
-        mockMvc.perform(get("/api/protected/user-info")
-                .header("Authorization", "Bearer "))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Error al obtener información del usuario: Token no encontrado en el header Authorization"));
+        mockMvc.perform(get("/api/protected/user-info"))
+                .andExpect(status().isUnauthorized());
     }
 }
-
@@ -1,20 +1,30 @@
 package com.example.jwtapi.repository;
 
+import com.example.jwtapi.dto.ProductSummary;
 import com.example.jwtapi.entity.Product;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.jwtapi.repository.ProductRepositoryTest$SqlCapturingInspector")
 @ActiveProfiles("test")
 class ProductRepositoryTest {
 
@@ -355,6 +365,351 @@ class ProductRepositoryTest {
         // Assert
         assertFalse(result);
     }
-}
 
+    @Test
+    void findAllBy_FirstPageSortedByPrice_ReturnsSliceWithNext() {
+        // Act
+        Slice<Product> result = productRepository.findAllBy(PageRequest.of(0, 2, Sort.by("price", "id")));
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.hasNext());
+        assertEquals("Mouse", result.getContent().get(0).getName());
+        assertEquals("Keyboard", result.getContent().get(1).getName());
+    }
+
+    @Test
+    void findByIdGreaterThan_Cursor_ReturnsFollowingProductsInIdOrder() {
+        // Act
+        Slice<Product> result = productRepository.findByIdGreaterThan(product1.getId(),
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.hasNext());
+        assertEquals(product2.getId(), result.getContent().get(0).getId());
+        assertEquals(product3.getId(), result.getContent().get(1).getId());
+    }
+
+    @Test
+    void findByNameOrDescriptionContaining_MatchesNameOrDescription() {
+        // Act
+        Slice<Product> byDescription = productRepository.findByNameOrDescriptionContaining("WIRELESS",
+                PageRequest.of(0, 10, Sort.by("id")));
+        Slice<Product> byName = productRepository.findByNameOrDescriptionContaining("key",
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        // Assert
+        assertEquals(List.of("Mouse"), byDescription.getContent().stream().map(Product::getName).toList());
+        assertEquals(List.of("Keyboard"), byName.getContent().stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void findByNameOrDescriptionContaining_MoreMatchesThanPage_ReturnsSliceWithNext() {
+        // Act
+        Slice<Product> result = productRepository.findByNameOrDescriptionContaining("o",
+                PageRequest.of(0, 2, Sort.by("id")));
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void streamAllOrderedById_ReturnsAllProductsInIdOrder() {
+        // Act
+        List<Long> ids;
+        try (Stream<Product> products = productRepository.streamAllOrderedById()) {
+            ids = products.map(Product::getId).toList();
+        }
+
+        // Assert
+        assertEquals(List.of(product1.getId(), product2.getId(), product3.getId()), ids);
+    }
+
+    @Test
+    void nameLower_IsGeneratedByDatabase() {
+        // Act
+        entityManager.clear();
+        Product found = entityManager.find(Product.class, product1.getId());
+
+        // Assert
+        assertEquals("laptop", found.getNameLower());
+    }
+
+    @Test
+    void queryPlan_FindByPriceBetween_UsesPriceIndex() {
+        // Act
+        String plan = explainRepositoryQuery(() -> productRepository.findByPriceBetween(
+                new BigDecimal("20"), new BigDecimal("200")), new BigDecimal("20"), new BigDecimal("200"));
+
+        // Assert
+        assertUsesIndex(plan, "IDX_PRODUCTS_PRICE_ID");
+    }
+
+    @Test
+    void queryPlan_FindAllBySortedByPriceAndId_UsesCompositeIndexWithoutSort() {
+        // Act
+        String plan = explainRepositoryQuery(() -> productRepository.findAllBy(
+                PageRequest.of(0, 10, Sort.by("price", "id"))), 0, 11);
+
+        // Assert
+        assertUsesIndex(plan, "IDX_PRODUCTS_PRICE_ID");
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void queryPlan_FindAndCountByStockGreaterThan_UseStockIndex() {
+        // Act
+        String selectPlan = explainRepositoryQuery(() -> productRepository.findByStockGreaterThan(20), 20);
+        String countPlan = explainRepositoryQuery(() -> productRepository.countByStockGreaterThan(20), 20);
+
+        // Assert
+        assertUsesIndex(selectPlan, "IDX_PRODUCTS_STOCK");
+        assertUsesIndex(countPlan, "IDX_PRODUCTS_STOCK");
+    }
+
+    @Test
+    void queryPlan_NameSearches_CompareNameLowerWithoutLowerPerRow() {
+        // Act
+        String byName = explainRepositoryQuery(() -> productRepository.findByNameContainingIgnoreCase("LAP"),
+                "LAP", "\\");
+        String byNameAndPrice = explainRepositoryQuery(() -> productRepository.findByNameContainingAndPriceLessThanEqual(
+                "LAP", new BigDecimal("1000")), "LAP", "\\", new BigDecimal("1000"));
+
+        // Assert
+        // '%x%' no permite buscar en un índice: se recorre la tabla (o el rango de precio),
+        // pero comparando la columna ya calculada en lugar de LOWER(name) por fila
+        for (String plan : List.of(byName, byNameAndPrice)) {
+            assertTrue(plan.contains("\"NAME_LOWER\" LIKE"), plan);
+            assertFalse(plan.contains("LOWER(\"NAME\")"), plan);
+            assertFalse(plan.contains("UPPER("), plan);
+        }
+        assertTrue(byName.contains("tableScan"), byName);
+        assertUsesIndex(byNameAndPrice, "IDX_PRODUCTS_PRICE_ID");
+    }
+
+    @Test
+    void findByNameContainingIgnoreCase_LikeWildcards_AreMatchedLiterally() {
+        // Act & Assert
+        assertTrue(productRepository.findByNameContainingIgnoreCase("%").isEmpty());
+        assertTrue(productRepository.findByNameContainingIgnoreCase("l_ptop").isEmpty());
+    }
+
+    @Test
+    void nameSearches_LikeWildcards_SummaryMatchesFullView() {
+        for (String name : List.of("%", "_", "l_ptop", "LAP")) {
+            // Act
+            List<Long> full = productRepository.findByNameContainingIgnoreCase(name).stream()
+                    .map(Product::getId).sorted().toList();
+            List<Long> summary = productRepository.findSummariesByNameContaining(name).stream()
+                    .map(ProductSummary::id).sorted().toList();
+
+            // Assert
+            assertEquals(full, summary, name);
+        }
+        assertTrue(productRepository.findSummariesByNameContaining("%").isEmpty());
+        assertTrue(productRepository.findSummariesByNameContaining("_").isEmpty());
+    }
+
+    @Test
+    void findByNameOrDescriptionContaining_LikeWildcards_AreMatchedLiterally() {
+        // Act & Assert
+        assertFalse(productRepository.findByNameOrDescriptionContaining("%", PageRequest.of(0, 10)).hasContent());
+        assertFalse(productRepository.findByNameOrDescriptionContaining("_", PageRequest.of(0, 10)).hasContent());
+        assertTrue(productRepository.findByNameContainingAndPriceLessThanEqual("%", new BigDecimal("10000")).isEmpty());
+    }
+
+    @Test
+    void updateStock_ExistingId_UpdatesInSingleStatement() {
+        // Act
+        int updated = productRepository.updateStock(product1.getId(), 42, LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(42, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void updateStock_NonExistingId_ReturnsZero() {
+        // Act & Assert
+        assertEquals(0, productRepository.updateStock(999L, 42, LocalDateTime.now()));
+    }
+
+    @Test
+    void incrementStock_AddsToCurrentValue() {
+        // Act
+        int updated = productRepository.incrementStock(product1.getId(), 5, LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(15, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    }
 
+    @Test
+    void decrementStockIfAvailable_EnoughStock_Decrements() {
+        // Act
+        int updated = productRepository.decrementStockIfAvailable(product1.getId(), 10, LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(0, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void decrementStockIfAvailable_NotEnoughStock_LeavesStockUnchanged() {
+        // Act
+        int updated = productRepository.decrementStockIfAvailable(product1.getId(), 11, LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, updated);
+        assertEquals(10, productRepository.findById(product1.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void persist_InitializesVersion() {
+        // Assert
+        assertEquals(0L, product1.getVersion());
+    }
+
+    @Test
+    void updateStock_IncrementsVersion() {
+        // Act
+        productRepository.updateStock(product1.getId(), 42, LocalDateTime.now());
+
+        // Assert
+        assertEquals(1L, productRepository.findById(product1.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void deleteProductById_ExistingId_ReturnsOne() {
+        // Act
+        int deleted = productRepository.deleteProductById(product1.getId());
+
+        // Assert
+        assertEquals(1, deleted);
+        assertFalse(productRepository.existsById(product1.getId()));
+    }
+
+    @Test
+    void deleteProductById_NonExistingId_ReturnsZero() {
+        // Act & Assert
+        assertEquals(0, productRepository.deleteProductById(999L));
+        assertEquals(3, productRepository.count());
+    }
+
+    @Test
+    void deleteAllByIdIn_DeletesOnlyExistingIds() {
+        // Act
+        int deleted = productRepository.deleteAllByIdIn(List.of(product1.getId(), product2.getId(), 999L));
+
+        // Assert
+        assertEquals(2, deleted);
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void findSummariesByPriceBetween_ReturnsProjectionOnly() {
+        // Act
+        List<ProductSummary> result = productRepository.findSummariesByPriceBetween(
+                new BigDecimal("20.00"), new BigDecimal("200.00"));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(summary -> "Mouse".equals(summary.name())));
+    }
+
+    @Test
+    void findSummariesByNameContaining_IgnoresCase() {
+        // Act
+        List<ProductSummary> result = productRepository.findSummariesByNameContaining("LAP");
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(product1.getId(), result.get(0).id());
+        assertEquals(10, result.get(0).stock());
+    }
+
+    @Test
+    void findSummariesByStockGreaterThan_ReturnsMatchingSummaries() {
+        // Act
+        List<ProductSummary> result = productRepository.findSummariesByStockGreaterThan(20);
+
+        // Assert
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void findSummariesBy_PageSortedByPrice_DoesNotLoadEntities() {
+        // Arrange
+        entityManager.clear();
+
+        // Act
+        Slice<ProductSummary> result = productRepository.findSummariesBy(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price", "id")));
+
+        // Assert
+        assertEquals(List.of(product1.getId(), product3.getId()),
+                result.getContent().stream().map(ProductSummary::id).toList());
+        assertTrue(result.hasNext());
+        assertFalse(entityManager.getEntityManager().contains(product1));
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findSummariesByIdGreaterThan_Cursor_ReturnsFollowingSummariesInIdOrder() {
+        // Act
+        Slice<ProductSummary> result = productRepository.findSummariesByIdGreaterThan(product1.getId(),
+                PageRequest.of(0, 1, Sort.by("id")));
+
+        // Assert
+        assertEquals(List.of(product2.getId()), result.getContent().stream().map(ProductSummary::id).toList());
+        assertTrue(result.hasNext());
+    }
+
+    /**
+     * Ejecuta la consulta del repositorio, captura el SQL que genera Hibernate y devuelve su plan
+     */
+    private String explainRepositoryQuery(Runnable repositoryCall, Object... parameters) {
+        SqlCapturingInspector.clear();
+        repositoryCall.run();
+        String sql = SqlCapturingInspector.lastSelect();
+        assertNotNull(sql, "La consulta no llegó a ejecutarse");
+
+        Query query = entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        return String.valueOf(query.getSingleResult());
+    }
+
+    private void assertUsesIndex(String plan, String indexName) {
+        assertTrue(plan.contains(indexName), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    /**
+     * Guarda las sentencias SELECT que Hibernate envía a la base de datos
+     */
+    public static class SqlCapturingInspector implements StatementInspector {
+
+        private static final List<String> SELECTS = new CopyOnWriteArrayList<>();
+
+        static void clear() {
+            SELECTS.clear();
+        }
+
+        static String lastSelect() {
+            return SELECTS.isEmpty() ? null : SELECTS.get(SELECTS.size() - 1);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                SELECTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.example.jwtapi.service;
 import com.example.jwtapi.dto.JwtResponse;
 import com.example.jwtapi.dto.LoginRequest;
 import com.example.jwtapi.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,6 +20,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +42,12 @@ class AuthServiceTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
@@ -58,6 +68,10 @@ class AuthServiceTest {
                 .build();
 
         authentication = mock(Authentication.class);
+
+        // El executor de hashing ejecuta la tarea en el mismo hilo durante los tests
+        lenient().when(passwordHashingExecutor.execute(any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     }
 
     @Test
@@ -160,5 +174,54 @@ class AuthServiceTest {
             authService.authenticateUser(invalidRequest);
         });
     }
-}
 
+    @Test
+    void authenticateUser_HashingPoolSaturated_PropagatesCapacityException() {
+        // Arrange
+        doThrow(new HashingCapacityExceededException("saturado"))
+                .when(passwordHashingExecutor).execute(any());
+
+        // Act & Assert
+        assertThrows(HashingCapacityExceededException.class, () -> authService.authenticateUser(loginRequest));
+        verify(authenticationManager, never()).authenticate(any());
+        verify(jwtService, never()).generateToken(any());
+    }
+
+    @Test
+    void authenticateUser_RecordsLoginOutcomeAndHashingTime() {
+        // Arrange
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authentication)
+                .thenThrow(new RuntimeException("Invalid credentials"));
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(jwtService.generateToken(userDetails)).thenReturn("jwt-token");
+
+        // Act
+        authService.authenticateUser(loginRequest);
+        assertThrows(RuntimeException.class, () -> authService.authenticateUser(loginRequest));
+
+        // Assert
+        assertEquals(1, loginCount("success"));
+        assertEquals(1, loginCount("failure"));
+        assertEquals(2, meterRegistry.get(AuthService.PASSWORD_HASHING_METRIC)
+                .tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void authenticateUser_HashingPoolSaturated_RecordsRejectedOutcome() {
+        // Arrange
+        doThrow(new HashingCapacityExceededException("saturado"))
+                .when(passwordHashingExecutor).execute(any());
+
+        // Act
+        assertThrows(HashingCapacityExceededException.class, () -> authService.authenticateUser(loginRequest));
+
+        // Assert
+        assertEquals(1, loginCount("rejected"));
+        assertNull(meterRegistry.find(AuthService.LOGIN_METRIC).tag("outcome", "success").timer());
+    }
+
+    private long loginCount(String outcome) {
+        return meterRegistry.get(AuthService.LOGIN_METRIC).tag("outcome", outcome).timer().count();
+    }
+}
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -98,10 +102,10 @@ class CustomUserDetailsServiceTest {
         assertNotNull(result1);
         assertNotNull(result2);
         assertEquals(result1.getUsername(), result2.getUsername());
-        // Note: Passwords will be different due to BCrypt encoding, but both should be valid
-        assertNotNull(result1.getPassword());
-        assertNotNull(result2.getPassword());
-        assertNotEquals(result1.getPassword(), result2.getPassword()); // BCrypt generates different hashes
+        // The stored hash is computed once, so every lookup returns the same one
+        assertEquals(result1.getPassword(), result2.getPassword());
+        // Each call returns a fresh instance so erasing credentials does not affect the store
+        assertNotSame(result1, result2);
     }
 
     @Test
@@ -118,5 +122,57 @@ class CustomUserDetailsServiceTest {
         assertTrue(password.startsWith("$2a$") || password.startsWith("$2b$"));
         assertTrue(password.length() > 50); // BCrypt hashes are typically 60 characters
     }
-}
 
+    @Test
+    void loadUserByUsername_AdminUser_StoredHashMatchesSamplePassword() {
+        // Act
+        UserDetails result = customUserDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertTrue(new BCryptPasswordEncoder().matches("admin123", result.getPassword()));
+    }
+
+    @Test
+    void loadUserByUsername_CredentialsErasedOnReturnedUser_StoreKeepsHash() {
+        // Arrange
+        UserDetails first = customUserDetailsService.loadUserByUsername("admin");
+
+        // Act
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = customUserDetailsService.loadUserByUsername("admin");
+
+        // Assert
+        assertNull(first.getPassword());
+        assertNotNull(second.getPassword());
+    }
+
+    @Test
+    void updatePassword_ExistingUser_StoresNewHash() {
+        // Arrange
+        UserDetails admin = customUserDetailsService.loadUserByUsername("admin");
+
+        // Act
+        UserDetails updated = customUserDetailsService.updatePassword(admin, "{noop}nuevo-hash");
+
+        // Assert
+        assertEquals("{noop}nuevo-hash", updated.getPassword());
+        assertEquals("{noop}nuevo-hash", customUserDetailsService.loadUserByUsername("admin").getPassword());
+    }
+
+    @Test
+    void authenticate_StoredHashWeakerThanConfigured_RehashesOnLogin() {
+        // Arrange
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(customUserDetailsService);
+        provider.setUserDetailsPasswordService(customUserDetailsService);
+        provider.setPasswordEncoder(new BCryptPasswordEncoder(11));
+
+        // Act
+        provider.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin123"));
+
+        // Assert
+        String storedHash = customUserDetailsService.loadUserByUsername("admin").getPassword();
+        assertTrue(storedHash.startsWith("$2a$11$"));
+        assertTrue(new BCryptPasswordEncoder().matches("admin123", storedHash));
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.jwtapi.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import javax.crypto.SecretKey;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -30,6 +34,7 @@ class JwtServiceTest {
     private UserDetails userDetails;
     private String secretKey;
     private long jwtExpiration;
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -40,6 +45,9 @@ class JwtServiceTest {
         // Inyectar valores usando ReflectionTestUtils
         ReflectionTestUtils.setField(jwtService, "secretKey", secretKey);
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", jwtExpiration);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", meterRegistry);
+        jwtService.init();
 
         userDetails = User.builder()
                 .username("testuser")
@@ -231,5 +239,184 @@ class JwtServiceTest {
         assertEquals("testuser", subject);
         assertNotNull(issuedAt);
     }
-}
 
+    @Test
+    void init_KeyAndParserAreReusedAcrossCalls() {
+        // Arrange
+        Object signInKey = ReflectionTestUtils.getField(jwtService, "signInKey");
+        Object jwtParser = ReflectionTestUtils.getField(jwtService, "jwtParser");
+
+        // Act
+        String token = jwtService.generateToken(userDetails);
+        jwtService.extractUsername(token);
+        jwtService.isTokenValid(token, userDetails);
+
+        // Assert
+        assertNotNull(signInKey);
+        assertNotNull(jwtParser);
+        assertSame(signInKey, ReflectionTestUtils.getField(jwtService, "signInKey"));
+        assertSame(jwtParser, ReflectionTestUtils.getField(jwtService, "jwtParser"));
+    }
+
+    @Test
+    void extractUsername_TokenSignedWithDifferentKey_ThrowsException() {
+        // Arrange
+        SecretKey otherKey = Keys.hmacShaKeyFor(new byte[32]);
+        String foreignToken = Jwts.builder()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .signWith(otherKey)
+                .compact();
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> jwtService.extractUsername(foreignToken));
+    }
+
+    @Test
+    void validateAndParse_ValidToken_ReturnsVerifiedClaims() {
+        // Arrange
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put("role", "ADMIN");
+        String token = jwtService.generateToken(extraClaims, userDetails);
+
+        // Act
+        VerifiedClaims claims = jwtService.validateAndParse(token);
+
+        // Assert
+        assertEquals("testuser", claims.getSubject());
+        assertEquals("ADMIN", claims.get("role", String.class));
+        assertNotNull(claims.getIssuedAt());
+        assertTrue(claims.getExpiration().after(claims.getIssuedAt()));
+        assertFalse(claims.isExpired(new Date()));
+    }
+
+    @Test
+    void validateAndParse_ExpiredToken_ThrowsExpiredJwtException() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+        String token = jwtService.generateToken(userDetails);
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtService.validateAndParse(token));
+    }
+
+    @Test
+    void validateAndParse_CacheEnabled_SecondCallIsCacheHit() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "tokenCacheEnabled", true);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 100L);
+        jwtService.init();
+        String token = jwtService.generateToken(userDetails);
+
+        // Act
+        VerifiedClaims first = jwtService.validateAndParse(token);
+        VerifiedClaims second = jwtService.validateAndParse(token);
+
+        // Assert
+        assertSame(first, second);
+        VerifiedTokenCache cache = jwtService.getTokenCache().orElseThrow();
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void validateAndParse_CacheEnabled_InvalidTokenStillThrows() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "tokenCacheEnabled", true);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 100L);
+        jwtService.init();
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> jwtService.validateAndParse("invalid.token.here"));
+        assertThrows(Exception.class, () -> jwtService.validateAndParse("invalid.token.here"));
+        assertEquals(0, jwtService.getTokenCache().orElseThrow().size());
+    }
+
+    @Test
+    void getTokenCache_CacheDisabledByDefault_ReturnsEmpty() {
+        // Assert
+        assertTrue(jwtService.getTokenCache().isEmpty());
+    }
+
+    @Test
+    void generateToken_UserWithAuthorities_AddsRolesClaim() {
+        // Arrange
+        UserDetails adminUser = User.builder()
+                .username("admin")
+                .password("password")
+                .roles("ADMIN")
+                .build();
+
+        // Act
+        String token = jwtService.generateToken(adminUser);
+
+        // Assert
+        List<?> roles = jwtService.validateAndParse(token).get(JwtService.ROLES_CLAIM, List.class);
+        assertEquals(List.of("ROLE_ADMIN"), roles);
+    }
+
+    @Test
+    void generateToken_RecordsIssueTimer() {
+        // Act
+        jwtService.generateToken(userDetails);
+
+        // Assert
+        assertEquals(1, meterRegistry.get(JwtService.ISSUE_METRIC).timer().count());
+    }
+
+    @Test
+    void validateAndParse_ValidToken_RecordsVerifyTimerWithoutFailures() {
+        // Arrange
+        String token = jwtService.generateToken(userDetails);
+
+        // Act
+        jwtService.validateAndParse(token);
+
+        // Assert
+        assertEquals(1, meterRegistry.get(JwtService.VERIFY_METRIC).timer().count());
+        assertEquals(0, meterRegistry.get(JwtService.VERIFY_FAILURES_METRIC).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void validateAndParse_Failures_CountedByCause() {
+        // Arrange
+        SecretKey otherKey = Keys.hmacShaKeyFor(new byte[32]);
+        String foreignToken = Jwts.builder().subject("testuser").signWith(otherKey, Jwts.SIG.HS256).compact();
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+        String expiredToken = jwtService.generateToken(userDetails);
+
+        // Act
+        assertThrows(Exception.class, () -> jwtService.validateAndParse(foreignToken));
+        assertThrows(Exception.class, () -> jwtService.validateAndParse(expiredToken));
+        assertThrows(Exception.class, () -> jwtService.validateAndParse("invalid.token.here"));
+
+        // Assert
+        assertEquals(1, failures("signature"));
+        assertEquals(1, failures("expired"));
+        assertEquals(1, failures("malformed"));
+        assertEquals(3, meterRegistry.get(JwtService.VERIFY_METRIC).timer().count());
+    }
+
+    @Test
+    void validateAndParse_CacheEnabled_PublishesCacheMetrics() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "tokenCacheEnabled", true);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 100L);
+        jwtService.init();
+        String token = jwtService.generateToken(userDetails);
+
+        // Act
+        jwtService.validateAndParse(token);
+        jwtService.validateAndParse(token);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "jwt.tokens").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get(JwtService.VERIFY_METRIC).timer().count());
+    }
+
+    private double failures(String cause) {
+        return meterRegistry.get(JwtService.VERIFY_FAILURES_METRIC).tag("cause", cause).counter().count();
+    }
+}
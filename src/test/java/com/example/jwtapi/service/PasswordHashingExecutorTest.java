@@ -0,0 +1,116 @@
+package com.example.jwtapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "poolSize", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_RunsTaskOnDedicatedThread() {
+        // Act
+        String threadName = executor.execute(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertTrue(threadName.startsWith("password-hashing-"));
+    }
+
+    @Test
+    void execute_TaskThrowsRuntimeException_PropagatesSameException() {
+        // Act & Assert
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class, () ->
+                executor.execute(() -> {
+                    throw new BadCredentialsException("Bad credentials");
+                }));
+        assertEquals("Bad credentials", exception.getMessage());
+    }
+
+    @Test
+    void execute_QueueFull_FailsFastWithCapacityException() throws Exception {
+        // Arrange: un hilo ocupado y una tarea en cola
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Thread busy = new Thread(() -> executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        busy.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread queued = new Thread(() -> executor.execute(() -> null));
+        queued.start();
+        while (executor.getQueueDepth() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Act & Assert
+        assertThrows(HashingCapacityExceededException.class, () -> executor.execute(() -> "rejected"));
+        assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count());
+
+        release.countDown();
+        busy.join(5000);
+        queued.join(5000);
+    }
+
+    @Test
+    void execute_TaskExceedsTimeout_ThrowsCapacityException() {
+        // Arrange
+        ReflectionTestUtils.setField(executor, "timeoutMillis", 20L);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act & Assert
+        assertThrows(HashingCapacityExceededException.class, () -> executor.execute(() -> {
+            awaitQuietly(release);
+            return null;
+        }));
+        assertEquals(1.0, meterRegistry.get("auth.hashing.timeouts").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void init_RegistersQueueDepthAndWaitTimeMetrics() {
+        // Act
+        executor.execute(() -> "ok");
+
+        // Assert
+        assertNotNull(meterRegistry.find("executor.queued").tag("name", "auth.hashing").gauge());
+        assertNotNull(meterRegistry.find("executor.idle").tag("name", "auth.hashing").timer());
+        assertEquals(1, meterRegistry.get("executor").tag("name", "auth.hashing").timer().count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.dto.BulkOperationResponse;
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @InjectMocks
+    private ProductBulkService productBulkService;
+
+    private final AtomicLong sequence = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        productBulkService.init();
+    }
+
+    @Test
+    void createAll_PersistsInChunksAndSyncsCacheAndIndex() {
+        // Arrange
+        List<Product> products = products(ProductBulkService.CHUNK_SIZE + 1);
+        doAnswer(invocation -> {
+            invocation.<Product>getArgument(0).setId(sequence.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+
+        // Act
+        BulkOperationResponse response = productBulkService.createAll(products.iterator());
+
+        // Assert
+        assertEquals(products.size(), response.getCount());
+        assertEquals(101L, response.getIds().get(0));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(transactionManager, times(2)).commit(any());
+        verifyNoInteractions(productCache);
+        verify(productSearchIndex, times(products.size())).index(any(Product.class));
+    }
+
+    @Test
+    void createAll_IgnoresClientIdAndVersion() {
+        // Arrange
+        Product product = new Product("Laptop", "Gaming laptop", new BigDecimal("999.99"), 10);
+        product.setId(7L);
+        product.setVersion(3L);
+        List<Product> persisted = new ArrayList<>();
+        doAnswer(invocation -> {
+            Product argument = invocation.getArgument(0);
+            persisted.add(new Product(argument));
+            argument.setId(sequence.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+
+        // Act
+        productBulkService.createAll(List.of(product).iterator());
+
+        // Assert
+        assertNull(persisted.get(0).getId());
+        assertNull(persisted.get(0).getVersion());
+    }
+
+    @Test
+    void createAll_InvalidProduct_ThrowsBeforePersistingChunk() {
+        // Arrange
+        Product invalid = new Product("", null, new BigDecimal("-1"), 1);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productBulkService.createAll(List.of(invalid).iterator()));
+        assertTrue(exception.getMessage().contains("posición 0"));
+        verify(entityManager, never()).persist(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void updateAll_AppliesChangesAndReportsMissingIds() {
+        // Arrange
+        Product existing = product(1L, "Laptop");
+        Product details = product(1L, "Laptop Pro");
+        Product unknown = product(99L, "Desconocido");
+        when(productRepository.findAllById(List.of(1L, 99L))).thenReturn(List.of(existing));
+
+        // Act
+        BulkOperationResponse response = productBulkService.updateAll(List.of(details, unknown).iterator());
+
+        // Assert
+        assertEquals(1, response.getCount());
+        assertEquals(List.of(99L), response.getMissingIds());
+        assertEquals("Laptop Pro", existing.getName());
+        verify(entityManager).flush();
+        verify(productCache).invalidate(1L);
+        verify(productSearchIndex).index(existing);
+    }
+
+    @Test
+    void updateAll_StaleVersion_ThrowsConflictAndRollsBack() {
+        // Arrange
+        Product existing = product(1L, "Laptop");
+        existing.setVersion(2L);
+        Product details = product(1L, "Laptop Pro");
+        details.setVersion(1L);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(existing));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> productBulkService.updateAll(List.of(details).iterator()));
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(productCache);
+    }
+
+    @Test
+    void updateAll_MissingId_ThrowsIllegalArgumentException() {
+        // Arrange
+        Product details = new Product("Laptop", "Gaming laptop", new BigDecimal("999.99"), 10);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> productBulkService.updateAll(List.of(details).iterator()));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void deleteAll_DeletesInChunksAndSyncsCacheAndIndex() {
+        // Arrange
+        List<Long> ids = IntStream.rangeClosed(1, ProductBulkService.CHUNK_SIZE + 1)
+                .mapToObj(Long::valueOf)
+                .toList();
+        when(productRepository.deleteAllByIdIn(anyList()))
+                .thenReturn(ProductBulkService.CHUNK_SIZE)
+                .thenReturn(1);
+
+        // Act
+        BulkOperationResponse response = productBulkService.deleteAll(ids);
+
+        // Assert
+        assertEquals(ids.size(), response.getCount());
+        verify(productRepository, times(2)).deleteAllByIdIn(anyList());
+        verify(productCache).invalidate(1L);
+        verify(productSearchIndex).remove((long) ids.size());
+    }
+
+    private List<Product> products(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new Product("Producto " + i, null, BigDecimal.ONE, i))
+                .toList();
+    }
+
+    private Product product(Long id, String name) {
+        Product product = new Product(name, "Descripción", BigDecimal.TEN, 1);
+        product.setId(id);
+        return product;
+    }
+}
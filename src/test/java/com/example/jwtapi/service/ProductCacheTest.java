@@ -0,0 +1,110 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.entity.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCache productCache;
+    private MeterRegistry meterRegistry;
+    private Product product;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache();
+        ReflectionTestUtils.setField(productCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(productCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(productCache, "meterRegistry", meterRegistry);
+        productCache.init();
+
+        product = new Product("Laptop", "Gaming laptop", new BigDecimal("999.99"), 10);
+        product.setId(1L);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_SecondLookup_IsServedFromCache() {
+        // Act
+        productCache.get(1L, this::load);
+        Optional<Product> result = productCache.get(1L, this::load);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("Laptop", result.get().getName());
+        assertEquals(1, loads.get());
+        assertEquals(1, productCache.stats().hitCount());
+    }
+
+    @Test
+    void get_ReturnsCopies_CallersCannotModifyCachedProduct() {
+        // Act
+        Product first = productCache.get(1L, this::load).orElseThrow();
+        first.setStock(0);
+        product.setStock(0);
+        Product second = productCache.get(1L, this::load).orElseThrow();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals(10, second.getStock());
+    }
+
+    @Test
+    void get_MissingProduct_IsNotCached() {
+        // Act
+        Optional<Product> first = productCache.get(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        productCache.get(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_NextLookupReloads() {
+        // Arrange
+        productCache.get(1L, this::load);
+
+        // Act
+        productCache.invalidate(1L);
+        productCache.get(1L, this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void init_RegistersHitAndMissMetrics() {
+        // Act
+        productCache.get(1L, this::load);
+        productCache.get(1L, this::load);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    private Optional<Product> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(product);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ProductExportService productExportService;
+
+    private Product product1;
+    private Product product2;
+
+    @BeforeEach
+    void setUp() {
+        product1 = new Product("Laptop", "Gaming laptop", new BigDecimal("999.99"), 10);
+        product1.setId(1L);
+        product2 = new Product("Mouse", "Wireless mouse", new BigDecimal("29.99"), 50);
+        product2.setId(2L);
+    }
+
+    @Test
+    void exportAsNdjson_WritesOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        when(productRepository.streamAllOrderedById()).thenReturn(Stream.of(product1, product2));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        long count = productExportService.exportAsNdjson(outputStream);
+
+        // Assert
+        assertEquals(2, count);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{"));
+        assertTrue(lines[1].startsWith("{"));
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        JsonNode second = new ObjectMapper().readTree(lines[1]);
+        assertEquals("Laptop", first.get("name").asText());
+        assertEquals(2, second.get("id").asLong());
+    }
+
+    @Test
+    void exportAsNdjson_DetachesEveryEntityAndClosesStream() throws Exception {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(productRepository.streamAllOrderedById())
+                .thenReturn(Stream.of(product1, product2).onClose(() -> closed.set(true)));
+
+        // Act
+        productExportService.exportAsNdjson(new ByteArrayOutputStream());
+
+        // Assert
+        verify(entityManager).detach(product1);
+        verify(entityManager).detach(product2);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportAsNdjson_EmptyCatalog_WritesNothing() throws Exception {
+        // Arrange
+        when(productRepository.streamAllOrderedById()).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        long count = productExportService.exportAsNdjson(outputStream);
+
+        // Assert
+        assertEquals(0, count);
+        assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    void exportAsNdjson_ManyProducts_ExportsAll() throws Exception {
+        // Arrange
+        List<Product> products = IntStream.rangeClosed(1, ProductExportService.FLUSH_INTERVAL * 2 + 1)
+                .mapToObj(i -> {
+                    Product product = new Product("Producto " + i, null, BigDecimal.ONE, i);
+                    product.setId((long) i);
+                    return product;
+                })
+                .toList();
+        when(productRepository.streamAllOrderedById()).thenReturn(products.stream());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        long count = productExportService.exportAsNdjson(outputStream);
+
+        // Assert
+        assertEquals(products.size(), count);
+        assertEquals(products.size(), outputStream.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+}
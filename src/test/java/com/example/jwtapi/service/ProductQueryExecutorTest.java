@@ -0,0 +1,92 @@
+package com.example.jwtapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductQueryExecutorTest {
+
+    private ProductQueryExecutor executor;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ProductQueryExecutor();
+        ReflectionTestUtils.setField(executor, "poolSize", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_RunsQueryOnDedicatedThread() throws Exception {
+        // Act
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(threadName.startsWith("product-query-"));
+    }
+
+    @Test
+    void submit_QueryThrows_CompletesExceptionally() {
+        // Act
+        CompletableFuture<Object> future = executor.submit(() -> {
+            throw new IllegalArgumentException("Página inválida");
+        });
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void submit_QueueFull_ReturnsFailedFutureWithoutBlocking() throws Exception {
+        // Arrange: un hilo ocupado y una consulta en cola
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Object> busy = executor.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "queued");
+
+        // Act
+        CompletableFuture<String> rejected = executor.submit(() -> "rejected");
+
+        // Assert
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(QueryCapacityExceededException.class, exception.getCause());
+        assertEquals(1.0, meterRegistry.get("product.queries.rejected").counter().count());
+
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
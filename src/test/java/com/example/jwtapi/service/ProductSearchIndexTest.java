@@ -0,0 +1,171 @@
+package com.example.jwtapi.service;
+
+import com.example.jwtapi.entity.Product;
+import com.example.jwtapi.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    private Product laptop;
+    private Product mouse;
+    private Product bag;
+
+    @BeforeEach
+    void setUp() {
+        laptop = product(1L, "Laptop", "Gaming laptop");
+        mouse = product(2L, "Mouse", "Ratón inalámbrico para laptop");
+        bag = product(3L, "Mochila", "Bolso de cuero");
+        when(productRepository.streamAllOrderedById()).thenReturn(Stream.of(laptop, mouse, bag));
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_IndexesAllProductsAndDetachesThem() {
+        // Assert
+        assertTrue(productSearchIndex.isReady());
+        assertEquals(3, productSearchIndex.size());
+        verify(entityManager).detach(laptop);
+        verify(entityManager).detach(bag);
+    }
+
+    @Test
+    void search_NameMatchRanksAboveDescriptionMatch() {
+        // Act
+        List<Long> result = productSearchIndex.search("LAPTOP", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    void search_NameScope_IgnoresDescription() {
+        // Act
+        List<Long> result = productSearchIndex.search("laptop", ProductSearchIndex.Scope.NAME);
+
+        // Assert
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    void search_IgnoresAccents() {
+        // Act
+        List<Long> result = productSearchIndex.search("raton", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION);
+
+        // Assert
+        assertEquals(List.of(2L), result);
+    }
+
+    @Test
+    void search_AllTermsMustMatch() {
+        // Act
+        List<Long> both = productSearchIndex.search("mouse laptop", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION);
+        List<Long> none = productSearchIndex.search("mouse cuero", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION);
+
+        // Assert
+        assertEquals(List.of(2L), both);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void search_SharedTrigramsButNoSubstring_ReturnsNothing() {
+        // "lapgam" contiene trigramas de "laptop" y "gaming" pero no aparece en el texto
+        // Act
+        List<Long> result = productSearchIndex.search("lapgam", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void index_UpdatedProduct_ReplacesPreviousTerms() {
+        // Arrange
+        laptop.setName("Notebook");
+        laptop.setDescription("Portátil");
+
+        // Act
+        productSearchIndex.index(laptop);
+
+        // Assert
+        assertEquals(List.of(2L), productSearchIndex.search("laptop", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION));
+        assertEquals(List.of(1L), productSearchIndex.search("note", ProductSearchIndex.Scope.NAME));
+        assertEquals(3, productSearchIndex.size());
+    }
+
+    @Test
+    void index_OlderVersionAfterNewer_KeepsNewerTerms() {
+        // Arrange
+        Product v2 = product(1L, "Notebook", "Portátil");
+        v2.setVersion(2L);
+        Product v3 = product(1L, "Ultrabook", "Portátil ligero");
+        v3.setVersion(3L);
+
+        // Act
+        productSearchIndex.index(v3);
+        productSearchIndex.index(v2);
+
+        // Assert
+        assertEquals(List.of(1L), productSearchIndex.search("ultra", ProductSearchIndex.Scope.NAME));
+        assertTrue(productSearchIndex.search("note", ProductSearchIndex.Scope.NAME).isEmpty());
+    }
+
+    @Test
+    void index_AfterRemove_DoesNotRestoreProduct() {
+        // Arrange
+        bag.setVersion(2L);
+        productSearchIndex.remove(3L);
+
+        // Act
+        productSearchIndex.index(bag);
+
+        // Assert
+        assertTrue(productSearchIndex.search("mochila", ProductSearchIndex.Scope.NAME).isEmpty());
+        assertEquals(2, productSearchIndex.size());
+    }
+
+    @Test
+    void remove_ProductNoLongerFound() {
+        // Act
+        productSearchIndex.remove(3L);
+
+        // Assert
+        assertTrue(productSearchIndex.search("mochila", ProductSearchIndex.Scope.NAME).isEmpty());
+        assertEquals(2, productSearchIndex.size());
+    }
+
+    @Test
+    void canServe_ShortQuery_ReturnsFalse() {
+        // Assert
+        assertFalse(productSearchIndex.canServe("la"));
+        assertFalse(productSearchIndex.canServe("  "));
+        assertTrue(productSearchIndex.canServe("la mochila"));
+    }
+
+    private Product product(Long id, String name, String description) {
+        Product product = new Product(name, description, BigDecimal.TEN, 1);
+        product.setId(id);
+        return product;
+    }
+}
@@ -1,23 +1,39 @@
 package com.example.jwtapi.service;
 
+import com.example.jwtapi.dto.PageResponse;
+import com.example.jwtapi.dto.ProductSummary;
+import com.example.jwtapi.dto.ProductView;
 import com.example.jwtapi.entity.Product;
 import com.example.jwtapi.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +42,12 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductCache productCache;
+
     @InjectMocks
     private ProductService productService;
 
@@ -49,36 +71,11 @@ class ProductServiceTest {
         product3.setId(3L);
         product3.setCreatedAt(LocalDateTime.now().minusDays(3));
         product3.setUpdatedAt(LocalDateTime.now().minusDays(3));
-    }
-
-    @Test
-    void getAllProducts_ReturnsAllProducts() {
-        // Arrange
-        List<Product> expectedProducts = Arrays.asList(product1, product2, product3);
-        when(productRepository.findAll()).thenReturn(expectedProducts);
-
-        // Act
-        List<Product> result = productService.getAllProducts();
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(3, result.size());
-        assertEquals(expectedProducts, result);
-        verify(productRepository).findAll();
-    }
-
-    @Test
-    void getAllProducts_EmptyRepository_ReturnsEmptyList() {
-        // Arrange
-        when(productRepository.findAll()).thenReturn(Arrays.asList());
-
-        // Act
-        List<Product> result = productService.getAllProducts();
-
-        // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(productRepository).findAll();
+        // La caché simulada siempre delega en el repositorio
+        lenient().doAnswer(invocation -> invocation.<Function<Long, Optional<Product>>>getArgument(1)
+                        .apply(invocation.getArgument(0)))
+                .when(productCache).get(any(), any());
     }
 
     @Test
@@ -161,29 +158,31 @@ class ProductServiceTest {
     @Test
     void deleteProduct_ExistingId_ReturnsTrue() {
         // Arrange
-        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
 
         // Act
         boolean result = productService.deleteProduct(1L);
 
         // Assert
         assertTrue(result);
-        verify(productRepository).existsById(1L);
-        verify(productRepository).deleteById(1L);
+        verify(productRepository).deleteProductById(1L);
+        verify(productRepository, never()).existsById(anyLong());
+        verify(productRepository, never()).deleteById(anyLong());
     }
 
     @Test
     void deleteProduct_NonExistingId_ReturnsFalse() {
         // Arrange
-        when(productRepository.existsById(999L)).thenReturn(false);
+        when(productRepository.deleteProductById(999L)).thenReturn(0);
 
         // Act
         boolean result = productService.deleteProduct(999L);
 
         // Assert
         assertFalse(result);
-        verify(productRepository).existsById(999L);
-        verify(productRepository, never()).deleteById(anyLong());
+        verify(productRepository).deleteProductById(999L);
+        verify(productCache, never()).invalidate(anyLong());
+        verify(productSearchIndex, never()).remove(anyLong());
     }
 
     @Test
@@ -269,8 +268,9 @@ class ProductServiceTest {
     @Test
     void updateStock_ExistingId_ReturnsUpdatedProduct() {
         // Arrange
+        product1.setStock(20);
+        when(productRepository.updateStock(eq(1L), eq(20), any(LocalDateTime.class))).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
-        when(productRepository.save(any(Product.class))).thenReturn(product1);
 
         // Act
         Product result = productService.updateStock(1L, 20);
@@ -278,24 +278,80 @@ class ProductServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(20, result.getStock());
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(product1);
+        verify(productRepository).updateStock(eq(1L), eq(20), any(LocalDateTime.class));
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
     void updateStock_NonExistingId_ReturnsNull() {
         // Arrange
-        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        when(productRepository.updateStock(eq(999L), eq(20), any(LocalDateTime.class))).thenReturn(0);
 
         // Act
         Product result = productService.updateStock(999L, 20);
 
         // Assert
         assertNull(result);
-        verify(productRepository).findById(999L);
+        verify(productRepository, never()).findById(anyLong());
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    @Test
+    void incrementStock_ExistingId_ReturnsTrueAndInvalidatesCache() {
+        // Arrange
+        when(productRepository.incrementStock(eq(1L), eq(5), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        boolean result = productService.incrementStock(1L, 5);
+
+        // Assert
+        assertTrue(result);
+        verify(productCache).invalidate(1L);
+    }
+
+    @Test
+    void incrementStock_NonPositiveAmount_ThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productService.incrementStock(1L, 0));
+        verify(productRepository, never()).incrementStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void reserveStock_EnoughStock_ReturnsTrue() {
+        // Arrange
+        when(productRepository.decrementStockIfAvailable(eq(1L), eq(3), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        boolean result = productService.reserveStock(1L, 3);
+
+        // Assert
+        assertTrue(result);
+        verify(productRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void reserveStock_NotEnoughStock_ThrowsInsufficientStockException() {
+        // Arrange
+        when(productRepository.decrementStockIfAvailable(eq(1L), eq(100), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> productService.reserveStock(1L, 100));
+    }
+
+    @Test
+    void reserveStock_NonExistingId_ReturnsFalse() {
+        // Arrange
+        when(productRepository.decrementStockIfAvailable(eq(999L), eq(1), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.existsById(999L)).thenReturn(false);
+
+        // Act
+        boolean result = productService.reserveStock(999L, 1);
+
+        // Assert
+        assertFalse(result);
+    }
+
     @Test
     void updateProduct_PreservesCreatedAt_UpdatesUpdatedAt() {
         // Arrange
@@ -314,5 +370,473 @@ class ProductServiceTest {
         assertEquals(originalCreatedAt, result.getCreatedAt());
         assertTrue(result.getUpdatedAt().isAfter(originalUpdatedAt));
     }
-}
 
+    @Test
+    void getProductsPage_SortByPrice_AddsIdTiebreakerAndReturnsSlice() {
+        // Arrange
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(productRepository.findAllBy(pageableCaptor.capture()))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product2, product3), PageRequest.of(0, 2), true));
+
+        // Act
+        PageResponse<Product> result = productService.getProductsPage(0, 2, "price,desc");
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertEquals(0, result.getPage());
+        assertTrue(result.isHasNext());
+        Pageable pageable = pageableCaptor.getValue();
+        assertEquals(2, pageable.getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id")), pageable.getSort());
+    }
+
+    @Test
+    void getProductsPage_SizeAboveMaximum_IsClamped() {
+        // Arrange
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(productRepository.findAllBy(pageableCaptor.capture()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        // Act
+        PageResponse<Product> result = productService.getProductsPage(0, 10_000, null);
+
+        // Assert
+        assertEquals(ProductService.MAX_PAGE_SIZE, pageableCaptor.getValue().getPageSize());
+        assertEquals(ProductService.MAX_PAGE_SIZE, result.getSize());
+        assertEquals(Sort.by("id"), pageableCaptor.getValue().getSort());
+    }
+
+    @Test
+    void getProductsPage_UnknownSortField_ThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsPage(0, 10, "description"));
+        verify(productRepository, never()).findAllBy(any());
+    }
+
+    @Test
+    void getProductsAfter_MorePages_ReturnsLastIdAsCursor() {
+        // Arrange
+        when(productRepository.findByIdGreaterThan(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product2, product3), PageRequest.of(0, 2), true));
+
+        // Act
+        PageResponse<Product> result = productService.getProductsAfter(1L, 2);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(3L, result.getNextCursor());
+        assertNull(result.getPage());
+    }
+
+    @Test
+    void getProductsAfter_LastPage_ReturnsNullCursor() {
+        // Arrange
+        when(productRepository.findByIdGreaterThan(eq(2L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(product3), PageRequest.of(0, 2), false));
+
+        // Act
+        PageResponse<Product> result = productService.getProductsAfter(2L, 2);
+
+        // Assert
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getProductSummariesPage_UsesProjectionWithSortAndClampedSize() {
+        // Arrange
+        ProductSummary mouse = new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50);
+        when(productRepository.findSummariesBy(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mouse), PageRequest.of(0, ProductService.MAX_PAGE_SIZE), true));
+
+        // Act
+        PageResponse<ProductSummary> result = productService.getProductSummariesPage(0, 1000, "price,desc");
+
+        // Assert
+        assertEquals(List.of(mouse), result.getContent());
+        assertEquals(ProductService.MAX_PAGE_SIZE, result.getSize());
+        assertTrue(result.isHasNext());
+        verify(productRepository).findSummariesBy(PageRequest.of(0, ProductService.MAX_PAGE_SIZE,
+                Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"))));
+        verify(productRepository, never()).findAllBy(any());
+    }
+
+    @Test
+    void getProductSummariesAfter_MorePages_ReturnsLastIdAsCursor() {
+        // Arrange
+        ProductSummary mouse = new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50);
+        ProductSummary keyboard = new ProductSummary(3L, "Keyboard", new BigDecimal("149.99"), 25);
+        when(productRepository.findSummariesByIdGreaterThan(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mouse, keyboard), PageRequest.of(0, 2), true));
+
+        // Act
+        PageResponse<ProductSummary> result = productService.getProductSummariesAfter(1L, 2);
+
+        // Assert
+        assertEquals(3L, result.getNextCursor());
+        assertNull(result.getPage());
+    }
+
+    @Test
+    void listProducts_NoParams_ReturnsFirstPageWithDefaultSize() {
+        // Arrange
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(product1)));
+
+        // Act
+        PageResponse<?> result = productService.listProducts(null, null, null, null, ProductView.FULL);
+
+        // Assert
+        assertEquals(0, result.getPage());
+        assertEquals(ProductService.DEFAULT_PAGE_SIZE, result.getSize());
+        verify(productRepository).findAllBy(PageRequest.of(0, ProductService.DEFAULT_PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Test
+    void listProducts_WithCursor_UsesKeysetQuery() {
+        // Arrange
+        when(productRepository.findByIdGreaterThan(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(product2), PageRequest.of(0, 1), true));
+
+        // Act
+        PageResponse<?> result = productService.listProducts(3, 1, null, 1L, ProductView.FULL);
+
+        // Assert
+        assertEquals(2L, result.getNextCursor());
+        assertNull(result.getPage());
+        verify(productRepository, never()).findAllBy(any());
+    }
+
+    @Test
+    void listProducts_SummaryView_UsesProjectionForPageAndCursor() {
+        // Arrange
+        ProductSummary mouse = new ProductSummary(2L, "Mouse", new BigDecimal("29.99"), 50);
+        when(productRepository.findSummariesBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(mouse)));
+        when(productRepository.findSummariesByIdGreaterThan(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mouse)));
+
+        // Act
+        PageResponse<?> page = productService.listProducts(null, 5, null, null, ProductView.SUMMARY);
+        PageResponse<?> keyset = productService.listProducts(null, 5, null, 1L, ProductView.SUMMARY);
+
+        // Assert
+        assertEquals(List.of(mouse), page.getContent());
+        assertEquals(List.of(mouse), keyset.getContent());
+        verify(productRepository).findSummariesBy(PageRequest.of(0, 5, Sort.by("id")));
+        verify(productRepository, never()).findAllBy(any());
+        verify(productRepository, never()).findByIdGreaterThan(anyLong(), any());
+    }
+
+    @Test
+    void createProduct_IndexesSavedProduct() {
+        // Arrange
+        when(productRepository.save(any(Product.class))).thenReturn(product1);
+
+        // Act
+        productService.createProduct(product1);
+
+        // Assert
+        verify(productSearchIndex).index(product1);
+    }
+
+    @Test
+    void deleteProduct_ExistingId_RemovesFromIndex() {
+        // Arrange
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
+
+        // Act
+        productService.deleteProduct(1L);
+
+        // Assert
+        verify(productSearchIndex).remove(1L);
+    }
+
+    @Test
+    void searchProductsByName_MultiWordQuery_KeepsSubstringContract() {
+        // Arrange
+        when(productRepository.findByNameContainingIgnoreCase("gaming laptop")).thenReturn(List.of(product1));
+
+        // Act
+        List<Product> result = productService.searchProductsByName("gaming laptop");
+
+        // Assert
+        assertEquals(List.of(product1), result);
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void searchProductsByNameAndMaxPrice_DoesNotUseSearchIndex() {
+        // Arrange
+        BigDecimal maxPrice = new BigDecimal("200.00");
+        when(productRepository.findByNameContainingAndPriceLessThanEqual("board", maxPrice))
+                .thenReturn(List.of(product3));
+
+        // Act
+        List<Product> result = productService.searchProductsByNameAndMaxPrice("board", maxPrice);
+
+        // Assert
+        assertEquals(List.of(product3), result);
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void searchProducts_IndexReady_ReturnsRequestedPage() {
+        // Arrange
+        when(productSearchIndex.canServe("lap")).thenReturn(true);
+        when(productSearchIndex.search("lap", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION))
+                .thenReturn(List.of(3L, 1L, 2L));
+        when(productRepository.findAllById(List.of(2L))).thenReturn(List.of(product2));
+
+        // Act
+        PageResponse<Product> result = productService.searchProducts("lap", 1, 2);
+
+        // Assert
+        assertEquals(List.of(product2), result.getContent());
+        assertFalse(result.isHasNext());
+        assertEquals(1, result.getPage());
+    }
+
+    @Test
+    void searchProducts_IndexReady_KeepsRelevanceOrder() {
+        // Arrange
+        when(productSearchIndex.canServe("lap")).thenReturn(true);
+        when(productSearchIndex.search("lap", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION))
+                .thenReturn(List.of(3L, 1L, 2L));
+        when(productRepository.findAllById(List.of(3L, 1L))).thenReturn(Arrays.asList(product1, product3));
+
+        // Act
+        PageResponse<Product> result = productService.searchProducts("lap", 0, 2);
+
+        // Assert
+        assertEquals(Arrays.asList(product3, product1), result.getContent());
+        assertTrue(result.isHasNext());
+    }
+
+    @Test
+    void searchProducts_PageBeyondResults_ReturnsEmptyPage() {
+        // Arrange
+        when(productSearchIndex.canServe("lap")).thenReturn(true);
+        when(productSearchIndex.search("lap", ProductSearchIndex.Scope.NAME_AND_DESCRIPTION)).thenReturn(List.of(1L));
+
+        // Act
+        PageResponse<Product> result = productService.searchProducts("lap", 5, 2);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchProducts_ShortQuery_FallsBackToNameAndDescriptionQuery() {
+        // Arrange
+        when(productSearchIndex.canServe("la")).thenReturn(false);
+        when(productRepository.findByNameOrDescriptionContaining(eq("la"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(product1), PageRequest.of(0, 20), false));
+
+        // Act
+        PageResponse<Product> result = productService.searchProducts("la", 0, 20);
+
+        // Assert
+        assertEquals(List.of(product1), result.getContent());
+        verify(productSearchIndex, never()).search(any(), any());
+    }
+
+    @Test
+    void searchProducts_NegativePage_ThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts("laptop", -1, 20));
+    }
+
+    @Test
+    void getProductById_ReadsThroughCache() {
+        // Arrange
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+        // Act
+        Optional<Product> result = productService.getProductById(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(productCache).get(eq(1L), any());
+    }
+
+    @Test
+    void updateProduct_InvalidatesCache() {
+        // Arrange
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.save(any(Product.class))).thenReturn(product1);
+
+        // Act
+        productService.updateProduct(1L, product2);
+
+        // Assert
+        verify(productCache).invalidate(1L);
+    }
+
+    @Test
+    void updateProduct_StockChangeBetweenSaveAndCacheUpdate_ReadReturnsLatestRow() {
+        // Arrange
+        ProductCache cache = useRealCache();
+        Product saved = new Product(product1);
+        saved.setVersion(3L);
+        Product afterStockChange = new Product(product1);
+        afterStockChange.setVersion(4L);
+        afterStockChange.setStock(2);
+        AtomicReference<Product> row = new AtomicReference<>(product1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> Optional.ofNullable(row.get()).map(Product::new));
+        // Un PATCH de stock confirma v4 e invalida la caché entre el save del PUT (v3) y su paso por la caché
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+            row.set(afterStockChange);
+            cache.invalidate(1L);
+            return saved;
+        });
+
+        // Act
+        productService.updateProduct(1L, product2);
+        Product result = productService.getProductById(1L).orElseThrow();
+
+        // Assert
+        assertEquals(4L, result.getVersion());
+        assertEquals(2, result.getStock());
+    }
+
+    @Test
+    void updateProduct_DeleteBetweenSaveAndCacheUpdate_ReadFindsNothing() {
+        // Arrange
+        useRealCache();
+        AtomicReference<Product> row = new AtomicReference<>(product1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> Optional.ofNullable(row.get()).map(Product::new));
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
+        // El DELETE se confirma entre el save del PUT y su paso por la caché
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+            row.set(null);
+            productService.deleteProduct(1L);
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        productService.updateProduct(1L, product2);
+
+        // Assert
+        assertTrue(productService.getProductById(1L).isEmpty());
+    }
+
+    @Test
+    void updateStock_InvalidatesCacheBeforeReloading() {
+        // Arrange
+        when(productRepository.updateStock(eq(1L), eq(5), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+        // Act
+        productService.updateStock(1L, 5);
+
+        // Assert
+        var inOrder = inOrder(productCache);
+        inOrder.verify(productCache).invalidate(1L);
+        inOrder.verify(productCache).get(eq(1L), any());
+    }
+
+    @Test
+    void deleteProduct_ExistingId_InvalidatesCache() {
+        // Arrange
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
+
+        // Act
+        productService.deleteProduct(1L);
+
+        // Assert
+        verify(productCache).invalidate(1L);
+    }
+
+    @Test
+    void updateProduct_StaleVersion_FailsFastWithoutSaving() {
+        // Arrange
+        product1.setVersion(3L);
+        Product details = new Product("Laptop Pro", "Updated", new BigDecimal("1199.99"), 5);
+        details.setVersion(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.updateProduct(1L, details));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void updateProduct_ConflictWithoutVersion_RetriesAndSucceeds() {
+        // Arrange
+        ReflectionTestUtils.setField(productService, "maxUpdateAttempts", 3);
+        Product details = new Product("Laptop Pro", "Updated", new BigDecimal("1199.99"), 5);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.save(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L))
+                .thenReturn(product1);
+
+        // Act
+        Product result = productService.updateProduct(1L, details);
+
+        // Assert
+        assertSame(product1, result);
+        verify(productRepository, times(2)).findById(1L);
+        verify(productRepository, times(2)).save(any(Product.class));
+    }
+
+    @Test
+    void updateProduct_ConflictPersists_GivesUpAfterMaxAttempts() {
+        // Arrange
+        ReflectionTestUtils.setField(productService, "maxUpdateAttempts", 3);
+        Product details = new Product("Laptop Pro", "Updated", new BigDecimal("1199.99"), 5);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.save(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.updateProduct(1L, details));
+        verify(productRepository, times(3)).save(any(Product.class));
+        verify(productCache, never()).invalidate(anyLong());
+    }
+
+    @Test
+    void updateProduct_ConflictWithClientVersion_DoesNotRetry() {
+        // Arrange
+        ReflectionTestUtils.setField(productService, "maxUpdateAttempts", 3);
+        product1.setVersion(1L);
+        Product details = new Product("Laptop Pro", "Updated", new BigDecimal("1199.99"), 5);
+        details.setVersion(1L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.save(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.updateProduct(1L, details));
+        verify(productRepository, times(1)).save(any(Product.class));
+    }
+
+    @Test
+    void searchProductSummariesByName_UsesRepositoryProjection() {
+        // Arrange
+        ProductSummary laptop = new ProductSummary(1L, "Laptop", new BigDecimal("999.99"), 10);
+        when(productRepository.findSummariesByNameContaining("laptop")).thenReturn(List.of(laptop));
+
+        // Act
+        List<ProductSummary> result = productService.searchProductSummariesByName("laptop");
+
+        // Assert
+        assertEquals(List.of(laptop), result);
+        verify(productRepository, never()).findByNameContainingIgnoreCase(any());
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    /**
+     * Sustituye la caché simulada por una real para comprobar el orden de escrituras e invalidaciones
+     */
+    private ProductCache useRealCache() {
+        ProductCache cache = new ProductCache();
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+        ReflectionTestUtils.setField(productService, "productCache", cache);
+        return cache;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.jwtapi.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100);
+        verifications = new AtomicInteger();
+    }
+
+    private Function<String, VerifiedClaims> verifierExpiringIn(long millis) {
+        return token -> {
+            verifications.incrementAndGet();
+            Claims claims = Jwts.claims()
+                    .subject(token)
+                    .expiration(new Date(System.currentTimeMillis() + millis))
+                    .build();
+            return new VerifiedClaims(claims);
+        };
+    }
+
+    @Test
+    void get_SameTokenTwice_VerifiesOnceAndCountsHit() {
+        // Act
+        VerifiedClaims first = cache.get("token-a", verifierExpiringIn(60_000));
+        VerifiedClaims second = cache.get("token-a", verifierExpiringIn(60_000));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void get_DifferentTokens_VerifiesEach() {
+        // Act
+        cache.get("token-a", verifierExpiringIn(60_000));
+        cache.get("token-b", verifierExpiringIn(60_000));
+
+        // Assert
+        assertEquals(2, verifications.get());
+        assertEquals(2, cache.stats().missCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_VerificationFails_ExceptionPropagatesAndNothingIsCached() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cache.get("bad-token", token -> {
+            throw new IllegalArgumentException("firma inválida");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_TokenPastItsExpiration_IsVerifiedAgain() throws InterruptedException {
+        // Arrange
+        cache.get("short-lived", verifierExpiringIn(20));
+
+        // Act
+        Thread.sleep(50);
+        cache.get("short-lived", verifierExpiringIn(60_000));
+
+        // Assert
+        assertEquals(2, verifications.get());
+        assertTrue(cache.stats().evictionCount() >= 1);
+    }
+
+    @Test
+    void get_MaximumSizeExceeded_EvictsEntries() {
+        // Arrange
+        VerifiedTokenCache smallCache = new VerifiedTokenCache(2);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            smallCache.get("token-" + i, verifierExpiringIn(60_000));
+        }
+        smallCache.cleanUp();
+
+        // Assert
+        assertTrue(smallCache.size() <= 2);
+        assertTrue(smallCache.stats().evictionCount() >= 18);
+    }
+
+    @Test
+    void invalidate_RemovesEntry() {
+        // Arrange
+        cache.get("token-a", verifierExpiringIn(60_000));
+
+        // Act
+        cache.invalidate("token-a");
+        cache.get("token-a", verifierExpiringIn(60_000));
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+}